@@ -0,0 +1,47 @@
+package com.blog.cache;
+
+import com.blog.dto.UserDTO;
+import com.blog.model.User;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the user fields authenticated requests need, shared between requests.
+ */
+@Getter
+@ToString
+public final class CachedUser {
+
+    private final Long id;
+
+    private final String name;
+
+    private final String email;
+
+    private final String pictureUrl;
+
+    private final String role;
+
+    // Part of the validators of posts that embed the user as their author
+    private final LocalDateTime updatedAt;
+
+    private CachedUser(Long id, String name, String email, String pictureUrl, String role, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.pictureUrl = pictureUrl;
+        this.role = role;
+        this.updatedAt = updatedAt;
+    }
+
+    public static CachedUser of(User user) {
+        return new CachedUser(user.getId(), user.getName(), user.getEmail(), user.getPictureUrl(), user.getRole(),
+                user.getUpdatedAt());
+    }
+
+    public UserDTO toDTO() {
+        return new UserDTO(id, name, email, pictureUrl, role);
+    }
+}
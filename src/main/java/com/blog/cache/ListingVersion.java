@@ -0,0 +1,55 @@
+package com.blog.cache;
+
+import com.blog.event.CategoryPostCountsChangedEvent;
+import com.blog.event.PostChangedEvent;
+import com.blog.event.UserChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory version of the post feeds, moved once a change that can alter a feed page has
+ * committed: a post write, a change of category post counts, or a user write (authors'
+ * names and pictures are embedded in feed entries). Feeds answer conditional requests from
+ * it without querying the database.
+ * <p>
+ * The version starts from the startup time, so ETags issued before a restart never match
+ * after it.
+ */
+@Component
+public class ListingVersion {
+
+    private final String startedAt = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicReference<State> state = new AtomicReference<>(new State(0, LocalDateTime.now()));
+
+    public ResourceVersion get() {
+        State current = state.get();
+        return ResourceVersion.of(startedAt, current.sequence, current.changedAt);
+    }
+
+    public void bump() {
+        state.updateAndGet(current -> new State(current.sequence + 1, LocalDateTime.now()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryPostCountsChanged(CategoryPostCountsChangedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        bump();
+    }
+
+    private record State(long sequence, LocalDateTime changedAt) {
+    }
+}
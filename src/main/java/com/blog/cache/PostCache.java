@@ -0,0 +1,104 @@
+package com.blog.cache;
+
+import com.blog.event.CategoryChangedEvent;
+import com.blog.event.PostChangedEvent;
+import com.blog.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of published posts as pre-serialized GET /api/posts/{id} bodies, weighted
+ * by their size in bytes and evicted with Caffeine's W-TinyLFU policy.
+ * <p>
+ * Entries are dropped as soon as a change to the post, to a category it is filed under, or
+ * to its author's profile commits, and are rebuilt by the next request. A load that overlaps such a change
+ * is not stored, since it may have read the previous version. Hit, miss and eviction counts
+ * are published as the {@code cache.*} metrics tagged {@code cache=posts}.
+ */
+@Component
+public class PostCache {
+
+    // Rough fixed cost of a cached post beyond its byte arrays
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final Cache<Long, SerializedPost> cache;
+
+    // Bumped on every invalidation; loads started before a bump are not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public PostCache(@Value("${blog.cache.posts.max-bytes:33554432}") long maxBytes, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, SerializedPost post) -> ENTRY_OVERHEAD_BYTES + post.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "posts");
+    }
+
+    public SerializedPost get(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Returns a cached post without counting as a cache access.
+     */
+    public SerializedPost getQuietly(Long id) {
+        return cache.policy().getIfPresentQuietly(id);
+    }
+
+    /**
+     * Returns the validators of a cached post without counting as a cache access.
+     */
+    public ResourceVersion getVersion(Long id) {
+        SerializedPost post = cache.policy().getIfPresentQuietly(id);
+        return post == null ? null : post.getVersion();
+    }
+
+    /**
+     * Returns a stamp to pass to {@link #putIfUnchanged} once the post has been loaded.
+     */
+    public long beginLoad() {
+        return generation.get();
+    }
+
+    /**
+     * Caches a published post unless an invalidation happened since {@code stamp} was taken.
+     */
+    public void putIfUnchanged(Long id, SerializedPost post, long stamp) {
+        cache.asMap().compute(id, (key, current) -> generation.get() == stamp ? post : current);
+    }
+
+    public void invalidate(Long id) {
+        generation.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        invalidate(event.getPostId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(post -> post.getCategoryIds().contains(event.getCategoryId()));
+    }
+
+    // Runs after UserCache has dropped the user, so a post rebuilt from here embeds the new profile
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(post -> event.getUserId().equals(post.getAuthorId()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.blog.cache;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * HTTP validators for a response: a strong ETag built from the parts that determine the
+ * body, and a Last-Modified taken from the latest timestamp among them. Computed from a
+ * few scalar columns so a matching If-None-Match can be answered before anything else
+ * is loaded.
+ */
+public final class ResourceVersion {
+
+    private final String eTag;
+
+    private final long lastModified;
+
+    private ResourceVersion(String eTag, long lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * @param parts values identifying the response body; timestamps may be null, and a
+     *              nested version contributes both its ETag and its Last-Modified
+     */
+    public static ResourceVersion of(Object... parts) {
+        StringBuilder eTag = new StringBuilder("\"");
+        long lastModified = -1;
+        for (int i = 0; i < parts.length; i++) {
+            Object part = parts[i];
+            if (i > 0) {
+                eTag.append('-');
+            }
+            if (part instanceof LocalDateTime timestamp) {
+                long millis = toEpochMillis(timestamp);
+                lastModified = Math.max(lastModified, millis);
+                eTag.append(Long.toString(millis, 36));
+            } else if (part instanceof ResourceVersion nested) {
+                lastModified = Math.max(lastModified, nested.lastModified);
+                eTag.append(nested.eTag, 1, nested.eTag.length() - 1);
+            } else {
+                eTag.append(part == null ? "0" : part);
+            }
+        }
+        return new ResourceVersion(eTag.append('"').toString(), lastModified);
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * The ETag as a weak validator, for a resource served in more than one content-coding.
+     */
+    public String getWeakETag() {
+        return "W/" + eTag;
+    }
+
+    /**
+     * Epoch millis, or -1 when none of the parts carried a timestamp.
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    private static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,80 @@
+package com.blog.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A published post as the exact UTF-8 JSON body of GET /api/posts/{id}, optionally with a
+ * gzipped copy, ready to be written to the response as is. Instances are shared between
+ * requests and must not be modified.
+ */
+public final class SerializedPost {
+
+    private final byte[] json;
+
+    private final byte[] gzippedJson;
+
+    private final ResourceVersion version;
+
+    private final Set<Long> categoryIds;
+
+    private final Long authorId;
+
+    private SerializedPost(byte[] json, byte[] gzippedJson, ResourceVersion version, Set<Long> categoryIds,
+                           Long authorId) {
+        this.json = json;
+        this.gzippedJson = gzippedJson;
+        this.version = version;
+        this.categoryIds = categoryIds;
+        this.authorId = authorId;
+    }
+
+    /**
+     * @param categoryIds the categories embedded in the body, whose changes make it stale
+     * @param authorId the user embedded in the body as its author, or null
+     */
+    public static SerializedPost of(byte[] json, boolean gzip, ResourceVersion version, Set<Long> categoryIds,
+                                    Long authorId) {
+        return new SerializedPost(json, gzip ? gzip(json) : null, version, Set.copyOf(categoryIds), authorId);
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * The gzipped body, or null when pre-compression is disabled.
+     */
+    public byte[] getGzippedJson() {
+        return gzippedJson;
+    }
+
+    public ResourceVersion getVersion() {
+        return version;
+    }
+
+    public Set<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    int weight() {
+        return json.length + (gzippedJson == null ? 0 : gzippedJson.length);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
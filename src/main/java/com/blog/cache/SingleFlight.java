@@ -0,0 +1,92 @@
+package com.blog.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader on its own
+ * thread and every caller arriving while it runs waits for that result instead of starting
+ * another load. Nothing is remembered once the load finishes; caching is up to the caller.
+ * <p>
+ * A loader failure is rethrown to every waiter unchanged when it is unchecked. Waiters give
+ * up after {@code blog.single-flight.timeout-ms} with a {@link SingleFlightTimeoutException};
+ * the load itself carries on for the caller that started it.
+ */
+@Component
+public class SingleFlight {
+
+    private final ConcurrentMap<FlightKey, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    private final long timeoutMillis;
+
+    public SingleFlight(@Value("${blog.single-flight.timeout-ms:5000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * @param group namespaces keys so different kinds of lookup never share a flight
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String group, Object key, Supplier<T> loader) {
+        FlightKey flightKey = new FlightKey(group, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = flights.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            return (T) await(existing, flightKey);
+        }
+
+        try {
+            T value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(flightKey, flight);
+        }
+    }
+
+    /**
+     * Number of loads currently in progress.
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+
+    private Object await(CompletableFuture<Object> flight, FlightKey key) {
+        try {
+            return flight.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Load failed for " + key, cause);
+        } catch (TimeoutException e) {
+            throw new SingleFlightTimeoutException("Timed out after " + timeoutMillis + " ms waiting for " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SingleFlightTimeoutException("Interrupted while waiting for " + key);
+        }
+    }
+
+    private record FlightKey(String group, Object key) {
+
+        @Override
+        public String toString() {
+            return group + ":" + key;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.blog.cache;
+
+import com.blog.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of users looked up on authenticated requests, by email and by id.
+ * <p>
+ * A user is dropped under both keys as soon as a change to them commits. As in
+ * {@link PostCache}, a load that overlaps an invalidation is not stored. Hit, miss and
+ * eviction counts are published as the {@code cache.*} metrics tagged
+ * {@code cache=users-by-email} and {@code cache=users-by-id}.
+ */
+@Component
+public class UserCache {
+
+    private final Cache<String, CachedUser> byEmail;
+
+    private final Cache<Long, CachedUser> byId;
+
+    // Bumped on every invalidation; loads started before a bump are not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserCache(@Value("${blog.cache.users.max-size:10000}") long maxSize, MeterRegistry meterRegistry) {
+        this.byEmail = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        this.byId = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "users-by-email");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users-by-id");
+    }
+
+    public CachedUser getByEmail(String email) {
+        return byEmail.getIfPresent(email);
+    }
+
+    public CachedUser getById(Long id) {
+        return byId.getIfPresent(id);
+    }
+
+    /**
+     * Returns a stamp to pass to {@link #putIfUnchanged} once the user has been loaded.
+     */
+    public long beginLoad() {
+        return generation.get();
+    }
+
+    /**
+     * Caches a user under both keys unless an invalidation happened since {@code stamp} was taken.
+     */
+    public void putIfUnchanged(CachedUser user, long stamp) {
+        byEmail.asMap().compute(user.getEmail(), (key, current) -> generation.get() == stamp ? user : current);
+        byId.asMap().compute(user.getId(), (key, current) -> generation.get() == stamp ? user : current);
+    }
+
+    public void invalidate(Long id, String email) {
+        generation.incrementAndGet();
+        byId.invalidate(id);
+        byEmail.invalidate(email);
+        // The user may still be cached under an email they have just changed
+        byEmail.asMap().values().removeIf(user -> user.getId().equals(id));
+    }
+
+    // Before PostCache drops the posts the user wrote, which are rebuilt from this cache
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.getUserId(), event.getEmail());
+    }
+}
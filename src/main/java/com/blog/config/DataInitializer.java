@@ -24,7 +24,7 @@ public class DataInitializer implements CommandLineRunner {
     @Override
     public void run(String... args) throws Exception {
         // Check if we already have users, if so, don't initialize data
-        if (userRepository.count() > 0) {
+        if (userRepository.findFirstByOrderByIdAsc().isPresent()) {
             return;
         }
 
@@ -0,0 +1,61 @@
+package com.blog.config;
+
+import com.blog.repository.PostRepository;
+import com.blog.search.IndexPostSearchEngine;
+import com.blog.search.PostSearchEngine;
+import com.blog.search.PostSearchIndex;
+import com.blog.search.PostSearchMode;
+import com.blog.search.PostgresPostSearchEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Picks the search engine for the connected database. {@code blog.search.mode} is
+ * {@code auto} by default, which uses PostgreSQL full-text search when the database reports
+ * itself as PostgreSQL and the in-process index otherwise; {@code index} or {@code postgres}
+ * forces one.
+ */
+@Configuration
+public class SearchConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchConfig.class);
+
+    @Value("${blog.search.mode:auto}")
+    private String searchMode;
+
+    @Bean
+    public PostSearchMode postSearchMode(DataSource dataSource) throws SQLException {
+        PostSearchMode mode;
+        if ("auto".equalsIgnoreCase(searchMode)) {
+            mode = detectMode(dataSource);
+        } else {
+            mode = PostSearchMode.valueOf(searchMode.toUpperCase(Locale.ROOT));
+        }
+        log.info("Post search mode: {}", mode);
+        return mode;
+    }
+
+    @Bean
+    public PostSearchEngine postSearchEngine(PostSearchMode postSearchMode, PostSearchIndex searchIndex,
+                                             PostRepository postRepository) {
+        if (postSearchMode == PostSearchMode.POSTGRES) {
+            return new PostgresPostSearchEngine(postRepository);
+        }
+        return new IndexPostSearchEngine(searchIndex);
+    }
+
+    static PostSearchMode detectMode(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            return "PostgreSQL".equalsIgnoreCase(product) ? PostSearchMode.POSTGRES : PostSearchMode.INDEX;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.blog.security.JwtAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -31,10 +32,15 @@ public class SecurityConfig {
                 .and()
                 .authorizeHttpRequests()
                 .requestMatchers("/api/auth/**", "/login", "/oauth2/**").permitAll()
+                // Error dispatches carry the status of a rejected request, e.g. 400 for a bad cursor
+                .requestMatchers("/error").permitAll()
                 .requestMatchers("/api/posts", "/api/menu").permitAll()
                 .requestMatchers("/api/posts/{id}").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/posts/slug/*").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/files/**").permitAll()
                 .requestMatchers("/api/s3/upload").authenticated()
                 .requestMatchers("/api/posts/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
                 .and()
                 .oauth2Login()
@@ -0,0 +1,54 @@
+package com.blog.config;
+
+import com.blog.storage.BlobStorage;
+import com.blog.storage.BlobStorageBackend;
+import com.blog.storage.FileSystemBlobStorage;
+import com.blog.storage.S3BlobStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Picks where uploads are stored. {@code blog.storage.backend} is {@code s3} by default;
+ * {@code filesystem} keeps them under {@code blog.storage.filesystem.root} instead, which
+ * needs no AWS account or network access.
+ */
+@Configuration
+public class StorageConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageConfig.class);
+
+    @Value("${blog.storage.backend:s3}")
+    private String backend;
+
+    @Bean
+    public BlobStorageBackend blobStorageBackend() {
+        BlobStorageBackend storageBackend = BlobStorageBackend.valueOf(backend.toUpperCase(Locale.ROOT));
+        log.info("Blob storage backend: {}", storageBackend);
+        return storageBackend;
+    }
+
+    // S3BlobStorage's shutdown() is inferred as the destroy method
+    @Bean
+    public BlobStorage blobStorage(BlobStorageBackend blobStorageBackend,
+                                   ObjectProvider<S3Client> s3Client,
+                                   @Value("${aws.s3.bucket}") String bucketName,
+                                   @Value("${blog.uploads.part-size:5MB}") DataSize partSize,
+                                   @Value("${blog.uploads.parallel-parts:4}") int parallelParts,
+                                   @Value("${blog.uploads.upload-threads:8}") int uploadThreads,
+                                   @Value("${blog.storage.filesystem.root:./data/blobs}") String root,
+                                   @Value("${blog.storage.filesystem.public-url:/api/files}") String publicUrl) {
+        if (blobStorageBackend == BlobStorageBackend.FILESYSTEM) {
+            return new FileSystemBlobStorage(Path.of(root), publicUrl);
+        }
+        return new S3BlobStorage(s3Client.getObject(), bucketName, partSize.toBytes(), parallelParts, uploadThreads);
+    }
+}
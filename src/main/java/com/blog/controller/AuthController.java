@@ -4,8 +4,8 @@ import com.blog.dto.AuthResponse;
 import com.blog.dto.UserDTO;
 import com.blog.model.User;
 import com.blog.repository.UserRepository;
+import com.blog.security.JwtTokenProvider;
 import com.blog.service.GoogleAuthService;
-import com.blog.service.JwtService;
 import com.blog.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -36,7 +36,7 @@ public class AuthController {
     private UserRepository userRepository;
 
     @Autowired
-    private JwtService jwtService;
+    private JwtTokenProvider tokenProvider;
 
     @GetMapping("/oauth2/success")
     public ResponseEntity<AuthResponse> handleOAuth2Success(
@@ -52,7 +52,7 @@ public class AuthController {
                 pictureUrl
         );
 
-        String token = jwtService.generateToken(email);
+        String token = tokenProvider.generateToken(user);
         UserDTO userDTO = new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getPictureUrl(), user.getRole());
 
         return ResponseEntity.ok(new AuthResponse(token, userDTO, null));
@@ -87,7 +87,7 @@ public class AuthController {
 
             if (userOpt.isPresent()) {
                 User user = userOpt.get();
-                String token = jwtService.generateToken(user.getEmail());
+                String token = tokenProvider.generateToken(user);
 
                 return ResponseEntity.ok(new AuthResponse(
                         token,
@@ -1,7 +1,8 @@
 package com.blog.controller;
 
+import com.blog.cache.ResourceVersion;
 import com.blog.dto.CategoryDTO;
-import com.blog.dto.PostDTO;
+import com.blog.dto.PostSummaryDTO;
 import com.blog.service.CategoryService;
 import com.blog.service.PostService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,10 +10,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.ArrayList;
@@ -29,13 +32,21 @@ public class CategoryController {
     private PostService postService;
 
     @GetMapping
-    public ResponseEntity<List<CategoryDTO>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<List<CategoryDTO>> getAllCategories(WebRequest request) {
+        ResourceVersion version = categoryService.getListingVersion();
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(categoryService.getAllCategories());
     }
 
     @GetMapping("/menu")
-    public ResponseEntity<List<CategoryDTO>> getCategoriesForMenu() {
-        return ResponseEntity.ok(categoryService.getCategoriesForMenu());
+    public ResponseEntity<List<CategoryDTO>> getCategoriesForMenu(WebRequest request) {
+        ResourceVersion version = categoryService.getListingVersion();
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(categoryService.getCategoriesForMenu());
     }
 
     @GetMapping("/{id}")
@@ -68,31 +79,52 @@ public class CategoryController {
     }
 
     @GetMapping("/{id}/posts")
-    public ResponseEntity<Page<PostDTO>> getPostsByCategory(
+    public ResponseEntity<?> getPostsByCategory(
             @PathVariable Long id,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+
+        ResourceVersion version = postService.getListingVersionByCategory(id);
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
+
+        if (cursor != null) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                    .body(postService.getPostsByCategory(id, cursor, size));
+        }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<PostDTO> posts = postService.getPostsByCategory(id, pageable);
-        return ResponseEntity.ok(posts);
+        Page<PostSummaryDTO> posts = postService.getPostsByCategory(id, pageable);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(posts);
     }
 
     @GetMapping("/slug/{slug}/posts")
-    public ResponseEntity<Page<PostDTO>> getPostsByCategorySlug(
+    public ResponseEntity<?> getPostsByCategorySlug(
             @PathVariable String slug,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Long categoryId = categoryService.getCategoryBySlug(slug).getId();
 
-        // This request will call a custom query method in the repository that needs to be implemented
-        Page<PostDTO> posts = postService.getPostsByCategory(
-                categoryService.getCategoryBySlug(slug).getId(),
-                pageable
-        );
+        ResourceVersion version = postService.getListingVersionByCategory(categoryId);
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
+
+        if (cursor != null) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                    .body(postService.getPostsByCategory(categoryId, cursor, size));
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Page<PostSummaryDTO> posts = postService.getPostsByCategory(categoryId, pageable);
 
-        return ResponseEntity.ok(posts);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(posts);
     }
 
     @PostMapping("/sample")
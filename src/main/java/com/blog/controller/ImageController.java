@@ -1,10 +1,14 @@
 package com.blog.controller;
 
+import com.blog.dto.ImageUploadResult;
 import com.blog.service.ImageService;
+import com.blog.storage.MultipartStreams;
+import com.blog.storage.UploadTooLargeException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -16,17 +20,26 @@ public class ImageController {
     @Autowired
     private ImageService imageService;
 
+    /**
+     * Expects the image in the multipart/form-data part "image"; it is streamed to storage
+     * as it arrives.
+     */
     @PostMapping("/upload")
-    public ResponseEntity<Map<String, String>> uploadImage(@RequestParam("image") MultipartFile file) {
+    public ResponseEntity<Map<String, Object>> uploadImage(HttpServletRequest request) {
         try {
-            String imageUrl = imageService.uploadImage(file);
+            ImageUploadResult result = MultipartStreams.readFile(request, "image", imageService::uploadImage);
 
-            Map<String, String> response = new HashMap<>();
-            response.put("imageUrl", imageUrl);
+            Map<String, Object> response = new HashMap<>();
+            response.put("imageUrl", result.getUrl());
+            response.put("variants", result.getVariants());
 
             return ResponseEntity.ok(response);
+        } catch (UploadTooLargeException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
         } catch (Exception e) {
-            Map<String, String> response = new HashMap<>();
+            Map<String, Object> response = new HashMap<>();
             response.put("error", e.getMessage());
             return ResponseEntity.badRequest().body(response);
         }
@@ -1,18 +1,18 @@
 package com.blog.controller;
 
-import com.blog.dto.CategoryDTO;
+import com.blog.cache.ResourceVersion;
 import com.blog.dto.MenuItemDTO;
 import com.blog.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 @RestController
@@ -25,29 +25,12 @@ public class MenuController {
 
     @GetMapping
     @PreAuthorize("permitAll()")
-    public ResponseEntity<List<MenuItemDTO>> getMenu() {
-        List<MenuItemDTO> menuItems = new ArrayList<>();
+    public ResponseEntity<List<MenuItemDTO>> getMenu(WebRequest request) {
+        ResourceVersion version = categoryService.getListingVersion();
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
 
-        // Add Home as the first item
-        menuItems.add(new MenuItemDTO(0L, "Home", "/", 0, "home"));
-
-        // Get categories that should be displayed in menu
-        List<CategoryDTO> categories = categoryService.getCategoriesForMenu();
-
-        // Convert categories to menu items
-        categories.forEach(category -> {
-            menuItems.add(new MenuItemDTO(
-                    category.getId(),
-                    category.getName(),
-                    "/category/" + category.getSlug(),
-                    category.getMenuOrder(),
-                    "category"
-            ));
-        });
-
-        // Sort by menu order
-        menuItems.sort(Comparator.comparingInt(MenuItemDTO::getOrder));
-
-        return ResponseEntity.ok(menuItems);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(categoryService.getMenuItems());
     }
 }
\ No newline at end of file
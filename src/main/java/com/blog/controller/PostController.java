@@ -1,18 +1,34 @@
 package com.blog.controller;
 
+import com.blog.cache.ResourceVersion;
+import com.blog.cache.SerializedPost;
+import com.blog.dto.CursorPage;
+import com.blog.dto.ImportResult;
 import com.blog.dto.PostDTO;
+import com.blog.dto.PostSummaryDTO;
+import com.blog.service.PostExportService;
+import com.blog.service.PostImportService;
 import com.blog.service.PostService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -21,27 +37,88 @@ public class PostController {
     @Autowired
     private PostService postService;
 
+    @Autowired
+    private PostImportService postImportService;
+
+    @Autowired
+    private PostExportService postExportService;
+
+    /**
+     * Offset pagination by default. Passing {@code cursor} (empty for the first slice)
+     * switches to keyset pagination, which skips the count query and stays flat in depth.
+     * Feeds answer a matching If-None-Match with 304 before the page is queried. Search
+     * results carry no validators since the search index catches up after the commit.
+     */
     @GetMapping
-    public ResponseEntity<Page<PostDTO>> getAllPosts(
+    public ResponseEntity<?> getAllPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+
+        boolean hasSearch = search != null && !search.isEmpty();
+
+        if (!hasSearch) {
+            ResourceVersion version = postService.getListingVersion();
+            if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+                return null;
+            }
+        }
+
+        if (cursor != null) {
+            CursorPage<PostSummaryDTO> posts = hasSearch
+                    ? postService.searchPosts(search, cursor, size)
+                    : postService.getAllPosts(cursor, size);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(posts);
+        }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<PostDTO> posts;
+        Page<PostSummaryDTO> posts;
 
-        if (search != null && !search.isEmpty()) {
+        if (hasSearch) {
             posts = postService.searchPosts(search, pageable);
         } else {
             posts = postService.getAllPosts(pageable);
         }
 
-        return ResponseEntity.ok(posts);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(posts);
     }
 
+    /**
+     * Published posts are written straight from their cached JSON bytes, gzipped when the
+     * client accepts it; unpublished posts (admins only) go through the regular DTO path.
+     * Both codings share one weak ETag, and every response varies by Accept-Encoding.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<PostDTO> getPostById(@PathVariable Long id) {
-        return ResponseEntity.ok(postService.getPostById(id));
+    public ResponseEntity<?> getPostById(@PathVariable Long id, WebRequest request, HttpServletResponse servletResponse) {
+        servletResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ResourceVersion version = postService.getPostVersion(id);
+        if (version != null && request.checkNotModified(version.getWeakETag(), version.getLastModified())) {
+            return null;
+        }
+
+        SerializedPost published = postService.getPublishedPost(id);
+        if (published == null) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(postService.getPostById(id));
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON);
+        if (published.getGzippedJson() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(published.getGzippedJson());
+        }
+        return response.body(published.getJson());
+    }
+
+    /**
+     * Same response, validators and visibility as {@link #getPostById}, addressed by slug.
+     */
+    @GetMapping("/slug/{slug}")
+    public ResponseEntity<?> getPostBySlug(@PathVariable String slug, WebRequest request,
+                                           HttpServletResponse servletResponse) {
+        return getPostById(postService.getPostIdBySlug(slug), request, servletResponse);
     }
 
     @PostMapping
@@ -50,6 +127,31 @@ public class PostController {
         return new ResponseEntity<>(postService.createPost(postDTO), HttpStatus.CREATED);
     }
 
+    /**
+     * Bulk import from a newline-delimited JSON body (one post per line), read as a stream.
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportResult> importPosts(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(postImportService.importPosts(request.getInputStream()));
+    }
+
+    /**
+     * Streams every post as newline-delimited JSON, optionally gzipped, in the format
+     * accepted by {@link #importPosts}. Answers 429 while the allowed number of exports
+     * is already running.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportPosts(@RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = postExportService.prepareExport(gzip);
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"posts.ndjson" + (gzip ? ".gz" : "") + "\"")
+                .body(body);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<PostDTO> updatePost(@PathVariable Long id, @Valid @RequestBody PostDTO postDTO) {
@@ -62,4 +164,38 @@ public class PostController {
         postService.deletePost(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Whether an Accept-Encoding header admits gzip: listed by name, or covered by "*", with
+     * a non-zero q-value. An explicit gzip entry takes precedence over "*".
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parameters = element.split(";");
+            String coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (coding.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        double quality = gzipQuality != null ? gzipQuality : anyQuality != null ? anyQuality : 0;
+        return quality > 0;
+    }
 }
@@ -1,14 +1,17 @@
 package com.blog.controller;
 
+import com.blog.dto.ImageUploadResult;
 import com.blog.service.S3Service;
+import com.blog.storage.MultipartStreams;
+import com.blog.storage.UploadTooLargeException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -20,27 +23,40 @@ public class S3Controller {
     @Autowired
     private S3Service s3Service;
 
+    /**
+     * Expects the image in the multipart/form-data part "file"; it is streamed to S3 as it
+     * arrives.
+     */
     @PostMapping("/upload")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, String>> uploadFile(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<Map<String, Object>> uploadFile(HttpServletRequest request) {
         try {
-            // Validate file type
-            String contentType = file.getContentType();
-            if (contentType == null || !contentType.startsWith("image/")) {
-                Map<String, String> response = new HashMap<>();
+            ImageUploadResult result = MultipartStreams.readFile(request, "file", (filename, contentType, content) -> {
+                // Validate file type
+                if (contentType == null || !contentType.startsWith("image/")) {
+                    return null;
+                }
+
+                // Upload the file to S3
+                return s3Service.uploadFile(filename, contentType, content);
+            });
+            if (result == null) {
+                Map<String, Object> response = new HashMap<>();
                 response.put("error", "Only image files are allowed");
                 return ResponseEntity.badRequest().body(response);
             }
 
-            // Upload the file to S3
-            String fileUrl = s3Service.uploadFile(file);
-
-            Map<String, String> response = new HashMap<>();
-            response.put("url", fileUrl);
+            Map<String, Object> response = new HashMap<>();
+            response.put("url", result.getUrl());
+            response.put("variants", result.getVariants());
 
             return ResponseEntity.ok(response);
+        } catch (UploadTooLargeException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", "Failed to upload file: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
         } catch (Exception e) {
-            Map<String, String> response = new HashMap<>();
+            Map<String, Object> response = new HashMap<>();
             response.put("error", "Failed to upload file: " + e.getMessage());
             return ResponseEntity.badRequest().body(response);
         }
@@ -1,5 +1,6 @@
 package com.blog.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,4 +15,11 @@ public class CategoryDTO {
     private String description;
     private boolean displayInMenu;
     private Integer menuOrder;
+
+    // Only set on category listings and the menu, not on categories embedded in posts
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer postCount;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer publishedPostCount;
 }
\ No newline at end of file
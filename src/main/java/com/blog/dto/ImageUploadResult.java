@@ -0,0 +1,18 @@
+package com.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageUploadResult {
+
+    private String url;
+
+    // Empty when the file is not a raster image we can resize or the pipeline is saturated
+    private List<ImageVariantDTO> variants;
+}
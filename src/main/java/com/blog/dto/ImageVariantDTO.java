@@ -0,0 +1,22 @@
+package com.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of the variant manifest returned with an upload. The variant is generated in
+ * the background, so its URL may not resolve for a moment after the upload returns.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageVariantDTO {
+
+    private String name;
+
+    // Maximum width; smaller originals are re-encoded at their own size
+    private int width;
+
+    private String url;
+}
@@ -0,0 +1,35 @@
+package com.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Only the first errors are listed; {@code failed} counts them all.
+ */
+@Data
+@NoArgsConstructor
+public class ImportResult {
+
+    private long imported;
+
+    private long failed;
+
+    private List<ImportError> errors = new ArrayList<>();
+
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportError {
+
+        // 1-based line of the record in the uploaded file
+        private long line;
+
+        private String message;
+    }
+}
@@ -1,5 +1,6 @@
 package com.blog.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,4 +14,12 @@ public class MenuItemDTO {
     private String url;
     private Integer order;
     private String type;
+
+    // Published posts in the category; not set on the Home item
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer postCount;
+
+    public MenuItemDTO(Long id, String label, String url, Integer order, String type) {
+        this(id, label, url, order, type, null);
+    }
 }
\ No newline at end of file
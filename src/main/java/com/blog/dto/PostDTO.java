@@ -25,11 +25,20 @@ public class PostDTO {
     @Size(max = 255, message = "Title cannot exceed 255 characters")
     private String title;
 
+    // Generated from the title on create when absent; only changed on update when given
+    @Size(max = 200, message = "Slug cannot exceed 200 characters")
+    private String slug;
+
     @NotBlank(message = "Content is required")
     private String content;
 
     private String coverImage;
 
+    // Derived from content when the post is saved; ignored on input
+    private String excerpt;
+
+    private Integer readingTimeMinutes;
+
     private List<String> tags = new ArrayList<>();
 
     private boolean published = true;
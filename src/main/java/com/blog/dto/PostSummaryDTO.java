@@ -0,0 +1,71 @@
+package com.blog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Listing view of a post. Carries the stored excerpt instead of the full content,
+ * which is only returned by GET /api/posts/{id}.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PostSummaryDTO {
+
+    private Long id;
+
+    private String title;
+
+    private String slug;
+
+    private String excerpt;
+
+    private String coverImage;
+
+    private Integer readingTimeMinutes;
+
+    private List<String> tags = new ArrayList<>();
+
+    private boolean published;
+
+    private UserDTO author;
+
+    private Set<CategoryDTO> categories = new HashSet<>();
+
+    private CategoryDTO primaryCategory;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    // Only set on search results: relevance score and highlighted HTML snippet
+    private Double score;
+
+    private String snippet;
+
+    // Used by the JPQL constructor expression in PostRepository
+    public PostSummaryDTO(Long id, String title, String slug, String excerpt, String coverImage,
+                          Integer readingTimeMinutes, boolean published,
+                          LocalDateTime createdAt, LocalDateTime updatedAt,
+                          Long authorId, String authorName, String authorPictureUrl) {
+        this.id = id;
+        this.title = title;
+        this.slug = slug;
+        this.excerpt = excerpt;
+        this.coverImage = coverImage;
+        this.readingTimeMinutes = readingTimeMinutes;
+        this.published = published;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        if (authorId != null) {
+            this.author = new UserDTO(authorId, authorName, null, authorPictureUrl, null);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.blog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Published by CategoryService when a category is updated or deleted, so caches holding
+ * posts that embed the category can drop them once the transaction has committed.
+ * {@code postIds} are the posts in the category, read before the change, since a deleted
+ * category no longer links to any post once it commits.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+
+    private final List<Long> postIds;
+}
@@ -0,0 +1,12 @@
+package com.blog.event;
+
+import lombok.ToString;
+
+/**
+ * Published when the denormalized post counts of one or more categories change, so the
+ * category snapshot is rebuilt once the transaction has committed. Unlike
+ * {@link CategoryChangedEvent} it leaves posts embedding those categories cached.
+ */
+@ToString
+public class CategoryPostCountsChangedEvent {
+}
@@ -0,0 +1,133 @@
+package com.blog.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Queues committed post changes and applies them to every {@link PostChangeListener} from a
+ * single background thread. Whatever has queued up while the previous batch was being
+ * applied is drained as the next batch and coalesced to the latest change per post, so the
+ * write path only pays for an enqueue.
+ */
+@Component
+public class PostChangeDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(PostChangeDispatcher.class);
+
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private final BlockingQueue<PostChangedEvent> queue = new LinkedBlockingQueue<>();
+
+    private final List<PostChangeListener> listeners;
+
+    private final Counter appliedCounter;
+
+    // Occurrence time of the oldest change in the batch currently being applied, or 0
+    private volatile long applyingSince;
+
+    private Thread worker;
+
+    public PostChangeDispatcher(List<PostChangeListener> listeners, MeterRegistry meterRegistry) {
+        this.listeners = listeners;
+        this.appliedCounter = Counter.builder("blog.post.changes.applied")
+                .description("Post changes applied to derived read structures")
+                .register(meterRegistry);
+        Gauge.builder("blog.post.changes.queue.depth", queue, BlockingQueue::size)
+                .description("Committed post changes waiting to be applied")
+                .register(meterRegistry);
+        Gauge.builder("blog.post.changes.lag", this, PostChangeDispatcher::getOldestPendingAgeMillis)
+                .description("Age of the oldest committed post change not yet applied")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = new Thread(this::run, "post-change-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.interrupt();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        queue.offer(event);
+    }
+
+    /**
+     * Posts embed the names of their categories, so a renamed or deleted category changes
+     * every post it held.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        long occurredAt = System.currentTimeMillis();
+        for (Long postId : event.getPostIds()) {
+            queue.offer(new PostChangedEvent(postId, PostChangeType.UPDATED, occurredAt));
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getOldestPendingAgeMillis() {
+        long oldest = applyingSince;
+        PostChangedEvent head = queue.peek();
+        if (oldest == 0 && head != null) {
+            oldest = head.getOccurredAt();
+        }
+        return oldest == 0 ? 0 : System.currentTimeMillis() - oldest;
+    }
+
+    private void run() {
+        List<PostChangedEvent> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            applyingSince = batch.get(0).getOccurredAt();
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+            Map<Long, PostChangedEvent> latestByPost = new LinkedHashMap<>();
+            for (PostChangedEvent event : batch) {
+                latestByPost.remove(event.getPostId());
+                latestByPost.put(event.getPostId(), event);
+            }
+
+            for (PostChangeListener listener : listeners) {
+                try {
+                    listener.onPostChanges(latestByPost.values());
+                } catch (Exception e) {
+                    log.error("Failed to apply {} post changes to {}", latestByPost.size(),
+                            listener.getClass().getSimpleName(), e);
+                }
+            }
+
+            appliedCounter.increment(batch.size());
+            applyingSince = 0;
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.blog.event;
+
+import java.util.Collection;
+
+/**
+ * Implemented by derived read structures that need to follow committed post changes.
+ * Called from the single dispatcher thread with at most one change per post, the
+ * latest one, so implementations do not need to be thread-safe against each other.
+ */
+public interface PostChangeListener {
+
+    void onPostChanges(Collection<PostChangedEvent> changes);
+}
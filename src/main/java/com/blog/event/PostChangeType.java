@@ -0,0 +1,7 @@
+package com.blog.event;
+
+public enum PostChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
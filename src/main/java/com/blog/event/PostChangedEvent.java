@@ -0,0 +1,25 @@
+package com.blog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by PostService inside the write transaction and delivered to the
+ * {@link PostChangeDispatcher} only once that transaction has committed.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class PostChangedEvent {
+
+    private final Long postId;
+
+    private final PostChangeType type;
+
+    private final long occurredAt;
+
+    public PostChangedEvent(Long postId, PostChangeType type) {
+        this(postId, type, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,19 @@
+package com.blog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by UserService when a user's profile or role is written, so the user cache can
+ * drop them once the transaction has committed.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    private final Long userId;
+
+    private final String email;
+}
@@ -2,7 +2,9 @@ package com.blog.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -43,6 +45,19 @@ public class Category {
     @Column(nullable = false)
     private Integer menuOrder = 0;
 
+    // Denormalized counts, adjusted by PostService on every post write and reconciled by
+    // CategoryPostCountReconciler; never written through this entity
+    @Column(name = "post_count", insertable = false, updatable = false,
+            columnDefinition = "INTEGER DEFAULT 0 NOT NULL")
+    private int postCount;
+
+    @Column(name = "published_post_count", insertable = false, updatable = false,
+            columnDefinition = "INTEGER DEFAULT 0 NOT NULL")
+    private int publishedPostCount;
+
+    // Excluded so that hashing a category never initializes its inverse post collection
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToMany(mappedBy = "categories")
     private Set<Post> posts = new HashSet<>();
 
@@ -3,6 +3,7 @@ package com.blog.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,9 +13,13 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_posts_published_created_at_id", columnList = "published, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,11 +41,27 @@ public class Post {
     @Column(name = "cover_image")
     private String coverImage;
 
+    // Derived from content on save so listings never need to read the content column
+    @Column(length = 500)
+    private String excerpt;
+
+    @Column(name = "reading_time_minutes")
+    private Integer readingTimeMinutes;
+
     @ElementCollection
     @CollectionTable(name = "post_tags", joinColumns = @JoinColumn(name = "post_id"))
     @Column(name = "tag")
     private List<String> tags = new ArrayList<>();
 
+    // Space-joined copy of the tags so the PostgreSQL search vector can be a generated column
+    @Column(name = "search_tags", columnDefinition = "TEXT")
+    private String searchTags;
+
+    // Space-joined category names, for the same reason; PostgresSearchSchema refreshes it
+    // when a category is renamed
+    @Column(name = "search_categories", columnDefinition = "TEXT")
+    private String searchCategories;
+
     @Column(nullable = false)
     private boolean published = true;
 
@@ -64,6 +85,45 @@ public class Post {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    private static final int EXCERPT_LENGTH = 300;
+    private static final int WORDS_PER_MINUTE = 200;
+
+    @PrePersist
+    @PreUpdate
+    public void updateContentSummary() {
+        String text = content == null ? "" : content
+                .replaceAll("<[^>]*>", " ")
+                .replace("&nbsp;", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+
+        if (text.length() > EXCERPT_LENGTH) {
+            int cut = text.lastIndexOf(' ', EXCERPT_LENGTH);
+            excerpt = text.substring(0, cut > 0 ? cut : EXCERPT_LENGTH) + "...";
+        } else {
+            excerpt = text;
+        }
+
+        int words = text.isEmpty() ? 0 : text.split(" ").length;
+        readingTimeMinutes = Math.max(1, (words + WORDS_PER_MINUTE - 1) / WORDS_PER_MINUTE);
+        searchTags = joinTags(tags);
+        // Category-only changes bump updatedAt, so they get here too. Categories that were
+        // never loaded cannot have changed.
+        if (Hibernate.isInitialized(categories)) {
+            searchCategories = categories.stream().map(Category::getName).collect(Collectors.joining(" "));
+        }
+    }
+
+    // Keeps searchTags in step even when only the tags change, which would not fire @PreUpdate
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+        this.searchTags = joinTags(tags);
+    }
+
+    private static String joinTags(List<String> tags) {
+        return tags == null ? "" : String.join(" ", tags);
+    }
+
     // Helper methods for categories
     public void addCategory(Category category) {
         this.categories.add(category);
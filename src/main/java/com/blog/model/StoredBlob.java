@@ -0,0 +1,57 @@
+package com.blog.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An uploaded file stored once under its content hash. Later uploads of the same bytes are
+ * answered with this blob instead of being stored again.
+ */
+@Entity
+@Table(name = "stored_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredBlob {
+
+    // Hex SHA-256 of the content
+    @Id
+    @Column(length = 64)
+    private String digest;
+
+    @Column(name = "storage_key", nullable = false)
+    private String storageKey;
+
+    @Column(nullable = false, unique = true, length = 1024)
+    private String url;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(nullable = false)
+    private long size;
+
+    // Posts whose cover image or inline images point at the blob's URL
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "upload_count", nullable = false)
+    private int uploadCount;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    // A blob uploaded recently may be about to be referenced even while its count is zero
+    @Column(name = "last_uploaded_at")
+    private LocalDateTime lastUploadedAt;
+
+    // Set once every resized variant is stored; until then a repeat upload queues them again
+    @Column(name = "variants_ready", columnDefinition = "BOOLEAN DEFAULT FALSE NOT NULL")
+    private boolean variantsReady;
+}
@@ -1,10 +1,15 @@
 package com.blog.repository;
 
+import com.blog.dto.CategoryDTO;
 import com.blog.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +26,46 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     Optional<Category> findByName(String name);
 
+    // Slugs only contain [a-z0-9-], so the prefix needs no LIKE escaping and can use the unique index
+    @Query("SELECT c.slug FROM Category c WHERE c.slug = :base OR c.slug LIKE CONCAT(:base, '-%')")
+    List<String> findSlugsWithPrefix(@Param("base") String base);
+
     @Query("SELECT c FROM Category c WHERE c.displayInMenu = true ORDER BY c.menuOrder ASC")
     List<Category> findCategoriesForMenu();
+
+    // Category snapshot source; a projection so that managed entities with stale counts in the
+    // current persistence context are never returned
+    @Query("SELECT new com.blog.dto.CategoryDTO(c.id, c.name, c.slug, c.description, c.displayInMenu, " +
+            "c.menuOrder, c.postCount, c.publishedPostCount) FROM Category c ORDER BY c.menuOrder ASC")
+    List<CategoryDTO> findAllForSnapshot();
+
+    @Query("SELECT p.id FROM Category c JOIN c.posts p WHERE c.id = :id")
+    List<Long> findPostIds(@Param("id") Long id);
+
+    // The links are owned by Post, so removing the category does not remove them
+    @Modifying
+    @Query(value = "DELETE FROM post_categories WHERE category_id = :id", nativeQuery = true)
+    int deletePostLinks(@Param("id") Long id);
+
+    @Query("SELECT MAX(c.updatedAt) FROM Category c")
+    LocalDateTime findLatestUpdate();
+
+    // Applied in the database so concurrent post writes never lose an increment. Deltas are
+    // only correct when computed under the post's row lock (PostRepository.findByIdForUpdate).
+    @Modifying
+    @Query("UPDATE Category c SET c.postCount = c.postCount + :delta, " +
+            "c.publishedPostCount = c.publishedPostCount + :publishedDelta WHERE c.id = :id")
+    int adjustPostCounts(@Param("id") Long id, @Param("delta") int delta, @Param("publishedDelta") int publishedDelta);
+
+    @Modifying
+    @Query("UPDATE Category c SET c.postCount = :postCount, c.publishedPostCount = :publishedPostCount " +
+            "WHERE c.id = :id")
+    int setPostCounts(@Param("id") Long id, @Param("postCount") int postCount,
+                      @Param("publishedPostCount") int publishedPostCount);
+
+    // Returns [categoryId, stored postCount, stored publishedPostCount, actual total, actual published] rows
+    @Query("SELECT c.id, c.postCount, c.publishedPostCount, COUNT(p), " +
+            "COALESCE(SUM(CASE WHEN p.published = true THEN 1 ELSE 0 END), 0) " +
+            "FROM Category c LEFT JOIN c.posts p GROUP BY c.id, c.postCount, c.publishedPostCount")
+    List<Object[]> countPostsPerCategory();
 }
\ No newline at end of file
@@ -1,14 +1,22 @@
 package com.blog.repository;
 
+import com.blog.dto.PostSummaryDTO;
 import com.blog.model.Category;
 import com.blog.model.Post;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * @author thanhch
  * <p>
@@ -19,28 +27,154 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
 
-    Page<Post> findAllByPublishedTrue(Pageable pageable);
+    String KEYSET_AFTER_CURSOR = "(p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))";
+
+    String KEYSET_ORDER = " ORDER BY p.createdAt DESC, p.id DESC";
+
+    // PostgreSQL full-text search; search_vector is created by PostgresSearchSchema
+
+    String FULL_TEXT_MATCH = "p.search_vector @@ websearch_to_tsquery('simple', :query)";
+
+    String FULL_TEXT_RANK = "SELECT p.id, ts_rank(p.search_vector, websearch_to_tsquery('simple', :query)) AS score " +
+            "FROM posts p WHERE " + FULL_TEXT_MATCH;
 
-    Page<Post> findByCategoriesContaining(Category category, Pageable pageable);
+    String FULL_TEXT_RANK_ORDER = " ORDER BY score DESC, p.created_at DESC, p.id DESC";
 
-    Page<Post> findByCategoriesContainingAndPublishedTrue(Category category, Pageable pageable);
+    String FULL_TEXT_AFTER_CURSOR = "(p.created_at < :createdAt OR (p.created_at = :createdAt AND p.id < :id))" +
+            " ORDER BY p.created_at DESC, p.id DESC LIMIT :limit";
 
-    @Query("SELECT p FROM Post p WHERE " +
-            "(p.published = true) AND " +
-            "(LOWER(p.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "LOWER(p.content) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "EXISTS (SELECT t FROM p.tags t WHERE LOWER(t) LIKE LOWER(CONCAT('%', :search, '%'))))")
-    Page<Post> searchByTitleOrContentOrTags(@Param("search") String search, Pageable pageable);
+    // Row-locked until commit, so concurrent edits of one post compute their count and
+    // reference deltas one after the other, each from the state the previous one left
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Post p WHERE p.id = :id")
+    Optional<Post> findByIdForUpdate(@Param("id") Long id);
 
-    @Query("SELECT p FROM Post p WHERE " +
-            "LOWER(p.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "LOWER(p.content) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "EXISTS (SELECT t FROM p.tags t WHERE LOWER(t) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Post> adminSearchByTitleOrContentOrTags(@Param("search") String search, Pageable pageable);
+    @Query("SELECT p.id FROM Post p WHERE p.slug = :slug")
+    Optional<Long> findIdBySlug(@Param("slug") String slug);
+
+    // Slugs only contain [a-z0-9-], so the prefix needs no LIKE escaping and can use the unique index
+    @Query("SELECT p.slug FROM Post p WHERE p.slug = :base OR p.slug LIKE CONCAT(:base, '-%')")
+    List<String> findSlugsWithPrefix(@Param("base") String base);
+
+    @Query("SELECT p.slug FROM Post p WHERE p.slug IN :slugs")
+    List<String> findExistingSlugs(@Param("slugs") Collection<String> slugs);
+
+    // Returns [slug, id] pairs
+    @Query("SELECT p.slug, p.id FROM Post p WHERE p.slug IN :slugs")
+    List<Object[]> findIdsBySlugIn(@Param("slugs") Collection<String> slugs);
 
     @Query("SELECT p FROM Post p JOIN p.categories c WHERE c.slug = :categorySlug AND p.published = true")
     Page<Post> findPublishedPostsByCategorySlug(@Param("categorySlug") String categorySlug, Pageable pageable);
 
     @Query("SELECT p FROM Post p JOIN p.categories c WHERE c.slug = :categorySlug")
     Page<Post> findAllPostsByCategorySlug(@Param("categorySlug") String categorySlug, Pageable pageable);
+
+    // Page assembly: select a page of IDs first, then hydrate that page in a fixed number of queries
+
+    @Query(value = "SELECT p.id FROM Post p",
+            countQuery = "SELECT COUNT(p) FROM Post p")
+    Page<Long> findPageIds(Pageable pageable);
+
+    @Query(value = "SELECT p.id FROM Post p WHERE p.published = true",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.published = true")
+    Page<Long> findPublishedPageIds(Pageable pageable);
+
+    @Query(value = "SELECT p.id FROM Post p JOIN p.categories c WHERE c = :category",
+            countQuery = "SELECT COUNT(p) FROM Post p JOIN p.categories c WHERE c = :category")
+    Page<Long> findPageIdsByCategory(@Param("category") Category category, Pageable pageable);
+
+    @Query(value = "SELECT p.id FROM Post p JOIN p.categories c WHERE c = :category AND p.published = true",
+            countQuery = "SELECT COUNT(p) FROM Post p JOIN p.categories c WHERE c = :category AND p.published = true")
+    Page<Long> findPublishedPageIdsByCategory(@Param("category") Category category, Pageable pageable);
+
+    // Keyset pagination: IDs strictly after the (createdAt, id) cursor, newest first
+
+    @Query("SELECT p.id FROM Post p WHERE " + KEYSET_AFTER_CURSOR + KEYSET_ORDER)
+    List<Long> findIdsAfterCursor(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                  Pageable pageable);
+
+    @Query("SELECT p.id FROM Post p WHERE p.published = true AND " + KEYSET_AFTER_CURSOR + KEYSET_ORDER)
+    List<Long> findPublishedIdsAfterCursor(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                           Pageable pageable);
+
+    @Query("SELECT p.id FROM Post p JOIN p.categories c WHERE c = :category AND " +
+            KEYSET_AFTER_CURSOR + KEYSET_ORDER)
+    List<Long> findIdsByCategoryAfterCursor(@Param("category") Category category,
+                                            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                            Pageable pageable);
+
+    @Query("SELECT p.id FROM Post p JOIN p.categories c WHERE c = :category AND p.published = true AND " +
+            KEYSET_AFTER_CURSOR + KEYSET_ORDER)
+    List<Long> findPublishedIdsByCategoryAfterCursor(@Param("category") Category category,
+                                                     @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                     Pageable pageable);
+
+    // Full-text search (PostgreSQL only): [postId, ts_rank] rows, best first
+
+    @Query(value = FULL_TEXT_RANK + FULL_TEXT_RANK_ORDER,
+            countQuery = "SELECT COUNT(*) FROM posts p WHERE " + FULL_TEXT_MATCH,
+            nativeQuery = true)
+    Page<Object[]> rankFullText(@Param("query") String query, Pageable pageable);
+
+    @Query(value = FULL_TEXT_RANK + " AND p.published = true" + FULL_TEXT_RANK_ORDER,
+            countQuery = "SELECT COUNT(*) FROM posts p WHERE p.published = true AND " + FULL_TEXT_MATCH,
+            nativeQuery = true)
+    Page<Object[]> rankPublishedFullText(@Param("query") String query, Pageable pageable);
+
+    @Query(value = "SELECT p.id FROM posts p WHERE " + FULL_TEXT_MATCH + " AND " + FULL_TEXT_AFTER_CURSOR,
+            nativeQuery = true)
+    List<Number> findFullTextIdsAfterCursor(@Param("query") String query,
+                                            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                            @Param("limit") int limit);
+
+    @Query(value = "SELECT p.id FROM posts p WHERE p.published = true AND " + FULL_TEXT_MATCH + " AND " +
+            FULL_TEXT_AFTER_CURSOR, nativeQuery = true)
+    List<Number> findPublishedFullTextIdsAfterCursor(@Param("query") String query,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("id") Long id, @Param("limit") int limit);
+
+    // Versions for HTTP validators: scalar aggregates only, answered before anything is hydrated
+
+    // Returns one [published, updatedAt, latest category updatedAt, author updatedAt] row, or none
+    @Query("SELECT p.published, p.updatedAt, MAX(c.updatedAt), a.updatedAt FROM Post p " +
+            "LEFT JOIN p.categories c LEFT JOIN p.author a " +
+            "WHERE p.id = :id GROUP BY p.id, p.published, p.updatedAt, a.updatedAt")
+    List<Object[]> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.blog.dto.PostSummaryDTO(p.id, p.title, p.slug, p.excerpt, p.coverImage, " +
+            "p.readingTimeMinutes, p.published, p.createdAt, p.updatedAt, a.id, a.name, a.pictureUrl) " +
+            "FROM Post p LEFT JOIN p.author a WHERE p.id IN :ids")
+    List<PostSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Returns [postId, Category] pairs
+    @Query("SELECT p.id, c FROM Post p JOIN p.categories c WHERE p.id IN :ids")
+    List<Object[]> findCategoriesByPostIdIn(@Param("ids") Collection<Long> ids);
+
+    // Returns [postId, categoryId] pairs
+    @Query("SELECT p.id, c.id FROM Post p JOIN p.categories c WHERE p.id IN :ids")
+    List<Object[]> findCategoryIdsByPostIdIn(@Param("ids") Collection<Long> ids);
+
+    // Returns [postId, tag] pairs
+    @Query("SELECT p.id, t FROM Post p JOIN p.tags t WHERE p.id IN :ids")
+    List<Object[]> findTagsByPostIdIn(@Param("ids") Collection<Long> ids);
+
+    // Returns [postId, content] pairs; used to build search snippets for a single result page
+    @Query("SELECT p.id, p.content FROM Post p WHERE p.id IN :ids")
+    List<Object[]> findContentByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Returns [postId, content] pairs of posts written before excerpts were stored, in ID order
+    @Query("SELECT p.id, p.content FROM Post p WHERE p.excerpt IS NULL AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findContentWithoutSummaryAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Search index loading: walk posts in ID order and fetch their categories and tags per batch
+
+    @Query("SELECT p.id FROM Post p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.categories WHERE p.id IN :ids")
+    List<Post> findWithCategoriesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Tags are a bag, so they are fetched separately to avoid a cartesian product with categories
+    @Query("SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.tags WHERE p.id IN :ids")
+    List<Post> findWithTagsByIdIn(@Param("ids") Collection<Long> ids);
 }
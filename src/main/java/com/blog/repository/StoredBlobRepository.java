@@ -0,0 +1,28 @@
+package com.blog.repository;
+
+import com.blog.model.StoredBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.uploadCount = b.uploadCount + 1, b.lastUploadedAt = :now WHERE b.digest = :digest")
+    int recordUpload(@Param("digest") String digest, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.variantsReady = true WHERE b.storageKey = :storageKey")
+    int markVariantsReady(@Param("storageKey") String storageKey);
+
+    // URLs that are not blobs, such as external images or resized variants, match nothing
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount + :delta WHERE b.url IN :urls")
+    int adjustRefCounts(@Param("urls") Collection<String> urls, @Param("delta") int delta);
+}
@@ -0,0 +1,42 @@
+package com.blog.search;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Searches the in-process {@link PostSearchIndex}. Ranking keeps only the hits up to the
+ * end of the requested page, and the page is the tail of those.
+ */
+public class IndexPostSearchEngine implements PostSearchEngine {
+
+    private final PostSearchIndex searchIndex;
+
+    public IndexPostSearchEngine(PostSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @Override
+    public Page<PostSearchIndex.SearchHit> rank(String query, boolean includeUnpublished, Pageable pageable) {
+        int limit = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+        PostSearchIndex.RankedHits ranked = searchIndex.rank(query, includeUnpublished, limit);
+        List<PostSearchIndex.SearchHit> hits = ranked.getHits();
+
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        return new PageImpl<>(hits.subList(from, hits.size()), pageable, ranked.getTotalMatches());
+    }
+
+    @Override
+    public List<Long> searchAfter(String query, boolean includeUnpublished,
+                                  LocalDateTime createdAt, Long id, int limit) {
+        return searchIndex.searchAfter(query, includeUnpublished, createdAt, id, limit);
+    }
+
+    @Override
+    public int[] matchOffsets(Long postId, String text, String query) {
+        return searchIndex.matchOffsets(postId, query);
+    }
+}
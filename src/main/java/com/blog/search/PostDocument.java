@@ -0,0 +1,45 @@
+package com.blog.search;
+
+import com.blog.model.Category;
+import com.blog.model.Post;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Detached snapshot of the searchable parts of a post, so the index never holds entities.
+ */
+@Getter
+@AllArgsConstructor
+public class PostDocument {
+
+    private final Long id;
+
+    private final String title;
+
+    private final String content;
+
+    private final List<String> tags;
+
+    private final List<String> categoryNames;
+
+    private final boolean published;
+
+    private final LocalDateTime createdAt;
+
+    public static PostDocument from(Post post) {
+        return new PostDocument(
+                post.getId(),
+                post.getTitle(),
+                post.getContent(),
+                post.getTags() != null ? new ArrayList<>(post.getTags()) : new ArrayList<>(),
+                post.getCategories().stream().map(Category::getName).collect(Collectors.toList()),
+                post.isPublished(),
+                post.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package com.blog.search;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Answers post search queries with post IDs; callers hydrate the returned page themselves.
+ */
+public interface PostSearchEngine {
+
+    /**
+     * Returns one page of matching posts ranked best first, ties broken newest first.
+     */
+    Page<PostSearchIndex.SearchHit> rank(String query, boolean includeUnpublished, Pageable pageable);
+
+    /**
+     * Returns up to {@code limit} IDs of matching posts strictly after the given
+     * (createdAt, id) position in newest-first order.
+     */
+    List<Long> searchAfter(String query, boolean includeUnpublished, LocalDateTime createdAt, Long id, int limit);
+
+    /**
+     * Returns the sorted offsets of query term occurrences in {@code text}, the HTML-stripped
+     * content of the given post, for use with {@link SearchHighlighter}.
+     */
+    int[] matchOffsets(Long postId, String text, String query);
+}
@@ -0,0 +1,449 @@
+package com.blog.search;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over post title, content, tags and category names.
+ * <p>
+ * Each term maps to the posts containing it, with the term positions recorded per field
+ * and, for content, the character offsets of each occurrence in the HTML-stripped text.
+ * A query matches a post when every query term occurs in it; a query wrapped in double
+ * quotes must additionally occur as a consecutive phrase within a single field.
+ * <p>
+ * Matches can be listed newest first, or ranked with BM25F where title and tag hits
+ * weigh more than body hits.
+ */
+@Component
+public class PostSearchIndex {
+
+    public enum Field {
+        TITLE(3.0), TAGS(2.5), CATEGORIES(1.5), CONTENT(1.0);
+
+        final double weight;
+
+        Field(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final Field[] FIELDS = Field.values();
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Newest first, the same order as the post feeds
+    private static final Comparator<IndexedPost> FEED_ORDER = Comparator
+            .comparing((IndexedPost doc) -> doc.createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(doc -> doc.id, Comparator.reverseOrder());
+
+    // Best score first, ties newest first
+    private static final Comparator<ScoredPost> RANK_ORDER = Comparator
+            .comparingDouble((ScoredPost scored) -> scored.score).reversed()
+            .thenComparing(scored -> scored.doc, FEED_ORDER);
+
+    private final Map<String, Map<Long, Occurrences>> postings = new HashMap<>();
+
+    private final Map<Long, IndexedPost> documents = new HashMap<>();
+
+    private final long[] totalFieldLengths = new long[FIELDS.length];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * A ranked match. Scores are only comparable within one query.
+     */
+    public static final class SearchHit {
+
+        private final Long postId;
+        private final double score;
+
+        SearchHit(Long postId, double score) {
+            this.postId = postId;
+            this.score = score;
+        }
+
+        public Long getPostId() {
+            return postId;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * The best-ranked matches of a query, and how many posts matched in total.
+     */
+    public static final class RankedHits {
+
+        private final List<SearchHit> hits;
+        private final int totalMatches;
+
+        RankedHits(List<SearchHit> hits, int totalMatches) {
+            this.hits = hits;
+            this.totalMatches = totalMatches;
+        }
+
+        public List<SearchHit> getHits() {
+            return hits;
+        }
+
+        public int getTotalMatches() {
+            return totalMatches;
+        }
+    }
+
+    /**
+     * Adds a post to the index, replacing any previous version of it.
+     */
+    public void index(PostDocument document) {
+        Map<String, Occurrences> termOccurrences = new HashMap<>();
+        int[] fieldLengths = new int[FIELDS.length];
+
+        addField(termOccurrences, fieldLengths, Field.TITLE, SearchTokenizer.tokenizeWithOffsets(document.getTitle()));
+        addField(termOccurrences, fieldLengths, Field.TAGS, tokenizeAll(document.getTags()));
+        addField(termOccurrences, fieldLengths, Field.CATEGORIES, tokenizeAll(document.getCategoryNames()));
+        addField(termOccurrences, fieldLengths, Field.CONTENT,
+                SearchTokenizer.tokenizeWithOffsets(SearchTokenizer.stripHtml(document.getContent())));
+
+        IndexedPost indexed = new IndexedPost(document.getId(), document.isPublished(), document.getCreatedAt(),
+                termOccurrences.keySet(), fieldLengths);
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(document.getId());
+            termOccurrences.forEach((term, occurrences) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.getId(), occurrences));
+            documents.put(document.getId(), indexed);
+            for (int field = 0; field < FIELDS.length; field++) {
+                totalFieldLengths[field] += fieldLengths[field];
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            Arrays.fill(totalFieldLengths, 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} IDs of matching posts strictly after the given
+     * (createdAt, id) position in newest-first order.
+     */
+    public List<Long> searchAfter(String query, boolean includeUnpublished,
+                                  LocalDateTime createdAt, Long id, int limit) {
+        IndexedPost position = new IndexedPost(id, true, createdAt, Collections.emptySet(), new int[0]);
+        Query parsed = Query.parse(query);
+        lock.readLock().lock();
+        try {
+            return match(parsed, includeUnpublished).stream()
+                    .filter(doc -> FEED_ORDER.compare(doc, position) > 0)
+                    .sorted(FEED_ORDER)
+                    .limit(limit)
+                    .map(doc -> doc.id)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best {@code limit} matching posts ranked by BM25F score, best first, ties
+     * broken newest first, with the total number of matches. Every match is scored but only
+     * the best {@code limit} are kept, in a bounded heap, so a broad query is not sorted whole.
+     */
+    public RankedHits rank(String query, boolean includeUnpublished, int limit) {
+        Query parsed = Query.parse(query);
+        lock.readLock().lock();
+        try {
+            List<IndexedPost> matches = match(parsed, includeUnpublished);
+            if (matches.isEmpty() || limit <= 0) {
+                return new RankedHits(Collections.emptyList(), matches.size());
+            }
+
+            int documentCount = documents.size();
+            double[] averageLengths = new double[FIELDS.length];
+            for (int field = 0; field < FIELDS.length; field++) {
+                averageLengths[field] = Math.max(1.0, (double) totalFieldLengths[field] / documentCount);
+            }
+
+            Map<String, Double> idf = new HashMap<>();
+            for (String term : parsed.distinctTerms) {
+                int df = postings.get(term).size();
+                idf.put(term, Math.log(1 + (documentCount - df + 0.5) / (df + 0.5)));
+            }
+
+            // The worst of the hits kept so far is at the head
+            PriorityQueue<ScoredPost> best = new PriorityQueue<>(Math.min(limit, matches.size()), RANK_ORDER.reversed());
+            for (IndexedPost doc : matches) {
+                ScoredPost scored = new ScoredPost(doc, score(doc, parsed, idf, averageLengths));
+                if (best.size() < limit) {
+                    best.add(scored);
+                } else if (RANK_ORDER.compare(scored, best.peek()) < 0) {
+                    best.poll();
+                    best.add(scored);
+                }
+            }
+
+            SearchHit[] hits = new SearchHit[best.size()];
+            for (int i = hits.length - 1; i >= 0; i--) {
+                ScoredPost scored = best.poll();
+                hits[i] = new SearchHit(scored.doc.id, scored.score);
+            }
+            return new RankedHits(Arrays.asList(hits), matches.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the sorted content offsets of every query term occurrence in the given post,
+     * for use with {@link SearchHighlighter}.
+     */
+    public int[] matchOffsets(Long postId, String query) {
+        Query parsed = Query.parse(query);
+        lock.readLock().lock();
+        try {
+            List<Integer> offsets = new ArrayList<>();
+            for (String term : parsed.distinctTerms) {
+                Map<Long, Occurrences> termPosting = postings.get(term);
+                Occurrences occurrences = termPosting != null ? termPosting.get(postId) : null;
+                if (occurrences != null && occurrences.contentOffsets != null) {
+                    for (int offset : occurrences.contentOffsets) {
+                        offsets.add(offset);
+                    }
+                }
+            }
+            return offsets.stream().mapToInt(Integer::intValue).sorted().toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double score(IndexedPost doc, Query query, Map<String, Double> idf, double[] averageLengths) {
+        double score = 0;
+        for (String term : query.distinctTerms) {
+            Occurrences occurrences = postings.get(term).get(doc.id);
+            double weightedFrequency = 0;
+            for (Field field : FIELDS) {
+                int[] positions = occurrences.positions[field.ordinal()];
+                if (positions == null) {
+                    continue;
+                }
+                double lengthNorm = 1 - B + B * doc.fieldLengths[field.ordinal()] / averageLengths[field.ordinal()];
+                weightedFrequency += field.weight * positions.length / lengthNorm;
+            }
+            score += idf.get(term) * weightedFrequency * (K1 + 1) / (weightedFrequency + K1);
+        }
+        return score;
+    }
+
+    private List<IndexedPost> match(Query query, boolean includeUnpublished) {
+        if (query.terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Map<Long, Occurrences>> termPostings = new ArrayList<>();
+        for (String term : query.distinctTerms) {
+            Map<Long, Occurrences> termPosting = postings.get(term);
+            if (termPosting == null) {
+                return new ArrayList<>();
+            }
+            termPostings.add(termPosting);
+        }
+        // Intersect starting from the rarest term
+        termPostings.sort(Comparator.comparingInt(Map::size));
+
+        List<IndexedPost> matches = new ArrayList<>();
+        for (Long postId : termPostings.get(0).keySet()) {
+            IndexedPost doc = documents.get(postId);
+            if (!includeUnpublished && !doc.published) {
+                continue;
+            }
+            if (!containsAll(termPostings, postId)) {
+                continue;
+            }
+            if (query.phrase && query.terms.size() > 1 && !containsPhrase(query.terms, postId)) {
+                continue;
+            }
+            matches.add(doc);
+        }
+        return matches;
+    }
+
+    private boolean containsAll(List<Map<Long, Occurrences>> termPostings, Long postId) {
+        for (int i = 1; i < termPostings.size(); i++) {
+            if (!termPostings.get(i).containsKey(postId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean containsPhrase(List<String> terms, Long postId) {
+        int[][][] positions = new int[terms.size()][][];
+        for (int i = 0; i < terms.size(); i++) {
+            positions[i] = postings.get(terms.get(i)).get(postId).positions;
+        }
+
+        for (int field = 0; field < FIELDS.length; field++) {
+            int[] starts = positions[0][field];
+            if (starts == null) {
+                continue;
+            }
+            for (int start : starts) {
+                boolean matched = true;
+                for (int i = 1; i < terms.size() && matched; i++) {
+                    int[] next = positions[i][field];
+                    matched = next != null && Arrays.binarySearch(next, start + i) >= 0;
+                }
+                if (matched) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void removeInternal(Long postId) {
+        IndexedPost previous = documents.remove(postId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms) {
+            Map<Long, Occurrences> termPosting = postings.get(term);
+            if (termPosting != null) {
+                termPosting.remove(postId);
+                if (termPosting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        for (int field = 0; field < FIELDS.length; field++) {
+            totalFieldLengths[field] -= previous.fieldLengths[field];
+        }
+    }
+
+    private static void addField(Map<String, Occurrences> termOccurrences, int[] fieldLengths,
+                                 Field field, List<SearchTokenizer.Token> tokens) {
+        Map<String, List<Integer>> positionsByTerm = new HashMap<>();
+        for (int position = 0; position < tokens.size(); position++) {
+            positionsByTerm.computeIfAbsent(tokens.get(position).term, t -> new ArrayList<>()).add(position);
+        }
+        positionsByTerm.forEach((term, positions) -> {
+            Occurrences occurrences = termOccurrences.computeIfAbsent(term, t -> new Occurrences());
+            occurrences.positions[field.ordinal()] = positions.stream().mapToInt(Integer::intValue).toArray();
+            if (field == Field.CONTENT) {
+                occurrences.contentOffsets = positions.stream().mapToInt(p -> tokens.get(p).offset).toArray();
+            }
+        });
+        fieldLengths[field.ordinal()] = tokens.size();
+    }
+
+    private static List<SearchTokenizer.Token> tokenizeAll(List<String> values) {
+        List<SearchTokenizer.Token> tokens = new ArrayList<>();
+        if (values != null) {
+            for (String value : values) {
+                tokens.addAll(SearchTokenizer.tokenizeWithOffsets(value));
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Query {
+
+        final List<String> terms;
+        final Set<String> distinctTerms;
+        final boolean phrase;
+
+        private Query(List<String> terms, boolean phrase) {
+            this.terms = terms;
+            this.distinctTerms = new LinkedHashSet<>(terms);
+            this.phrase = phrase;
+        }
+
+        static Query parse(String query) {
+            String trimmed = query == null ? "" : query.trim();
+            boolean phrase = trimmed.length() > 1 && trimmed.startsWith("\"") && trimmed.endsWith("\"");
+            return new Query(SearchTokenizer.tokenize(trimmed), phrase);
+        }
+    }
+
+    private static final class Occurrences {
+
+        // Token positions indexed by field ordinal; null where the term is absent
+        final int[][] positions = new int[FIELDS.length][];
+
+        // Character offsets of the content occurrences in the HTML-stripped content
+        int[] contentOffsets;
+    }
+
+    private static final class ScoredPost {
+
+        final IndexedPost doc;
+        final double score;
+
+        ScoredPost(IndexedPost doc, double score) {
+            this.doc = doc;
+            this.score = score;
+        }
+    }
+
+    private static final class IndexedPost {
+
+        final Long id;
+        final boolean published;
+        final LocalDateTime createdAt;
+        final Set<String> terms;
+        final int[] fieldLengths;
+
+        IndexedPost(Long id, boolean published, LocalDateTime createdAt, Set<String> terms, int[] fieldLengths) {
+            this.id = id;
+            this.published = published;
+            this.createdAt = createdAt;
+            this.terms = terms;
+            this.fieldLengths = fieldLengths;
+        }
+    }
+}
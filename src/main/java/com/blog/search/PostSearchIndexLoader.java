@@ -0,0 +1,130 @@
+package com.blog.search;
+
+import com.blog.event.PostChangeListener;
+import com.blog.event.PostChangeType;
+import com.blog.event.PostChangedEvent;
+import com.blog.model.Post;
+import com.blog.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the search index from the database once the application has started, then keeps
+ * it in sync by re-reading only the posts named in each batch of committed changes.
+ * <p>
+ * Posts are read in ID order in fixed-size batches, each in its own short read-only
+ * transaction, so the persistence context never holds more than one batch.
+ * <p>
+ * The initial load and the application of changes exclude each other. Changes committed
+ * while the index is being built wait for the build and then re-read their posts, so a
+ * batch read before an update can never overwrite the newer document.
+ * <p>
+ * Documents carry their category names, so a renamed or deleted category arrives as a change
+ * to every post it held (see {@link com.blog.event.PostChangeDispatcher#onCategoryChanged}).
+ * <p>
+ * Does nothing when searches are served by PostgreSQL full-text search.
+ */
+@Component
+public class PostSearchIndexLoader implements PostChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PostSearchIndexLoader.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostSearchIndex searchIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PostSearchMode searchMode;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadIndex() {
+        if (searchMode != PostSearchMode.INDEX) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        searchIndex.clear();
+
+        Long afterId = 0L;
+        while (afterId != null) {
+            afterId = indexBatch(afterId);
+        }
+
+        log.info("Search index built with {} posts in {} ms", searchIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public synchronized void onPostChanges(Collection<PostChangedEvent> changes) {
+        if (searchMode != PostSearchMode.INDEX) {
+            return;
+        }
+        List<Long> upserted = new ArrayList<>();
+        for (PostChangedEvent change : changes) {
+            if (change.getType() == PostChangeType.DELETED) {
+                searchIndex.remove(change.getPostId());
+            } else {
+                upserted.add(change.getPostId());
+            }
+        }
+
+        for (int from = 0; from < upserted.size(); from += BATCH_SIZE) {
+            List<Long> ids = upserted.subList(from, Math.min(from + BATCH_SIZE, upserted.size()));
+            List<PostDocument> documents = transactionTemplate.execute(status -> loadDocuments(ids));
+
+            Set<Long> found = new HashSet<>();
+            for (PostDocument document : documents) {
+                searchIndex.index(document);
+                found.add(document.getId());
+            }
+            // Deleted again before this batch was applied
+            ids.stream().filter(id -> !found.contains(id)).forEach(searchIndex::remove);
+        }
+    }
+
+    /**
+     * Indexes the next batch of posts and returns the last ID indexed, or null when done.
+     */
+    private Long indexBatch(Long afterId) {
+        List<PostDocument> documents = transactionTemplate.execute(status ->
+                loadDocuments(postRepository.findIdsAfterId(afterId, PageRequest.of(0, BATCH_SIZE))));
+
+        if (documents == null || documents.isEmpty()) {
+            return null;
+        }
+
+        Long lastId = afterId;
+        for (PostDocument document : documents) {
+            searchIndex.index(document);
+            lastId = Math.max(lastId, document.getId());
+        }
+        return lastId;
+    }
+
+    private List<PostDocument> loadDocuments(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Post> posts = postRepository.findWithCategoriesByIdIn(ids);
+        postRepository.findWithTagsByIdIn(ids);
+        return posts.stream().map(PostDocument::from).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,14 @@
+package com.blog.search;
+
+/**
+ * Which engine answers post searches. Chosen once at startup from the connected database
+ * unless {@code blog.search.mode} forces one.
+ */
+public enum PostSearchMode {
+
+    /** The in-process {@link PostSearchIndex}; used on H2 and any other database. */
+    INDEX,
+
+    /** PostgreSQL full-text search over a generated, GIN-indexed tsvector column. */
+    POSTGRES
+}
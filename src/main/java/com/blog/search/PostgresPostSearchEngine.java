@@ -0,0 +1,64 @@
+package com.blog.search;
+
+import com.blog.repository.PostRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Searches with PostgreSQL full-text search against the GIN-indexed {@code search_vector}
+ * column maintained by {@link PostgresSearchSchema}, ranking with {@code ts_rank}.
+ * <p>
+ * The vector uses the {@code simple} configuration (no stemming) so results match the
+ * terms the in-process index would match, and snippets highlight the same words.
+ */
+public class PostgresPostSearchEngine implements PostSearchEngine {
+
+    private final PostRepository postRepository;
+
+    public PostgresPostSearchEngine(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    @Override
+    public Page<PostSearchIndex.SearchHit> rank(String query, boolean includeUnpublished, Pageable pageable) {
+        // The ORDER BY is fixed by the native query; a sort on the pageable would be appended to it
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<Object[]> rows = includeUnpublished
+                ? postRepository.rankFullText(query, unsorted)
+                : postRepository.rankPublishedFullText(query, unsorted);
+
+        List<PostSearchIndex.SearchHit> hits = new ArrayList<>(rows.getNumberOfElements());
+        for (Object[] row : rows.getContent()) {
+            hits.add(new PostSearchIndex.SearchHit(((Number) row[0]).longValue(), ((Number) row[1]).doubleValue()));
+        }
+        return new PageImpl<>(hits, pageable, rows.getTotalElements());
+    }
+
+    @Override
+    public List<Long> searchAfter(String query, boolean includeUnpublished,
+                                  LocalDateTime createdAt, Long id, int limit) {
+        List<Number> ids = includeUnpublished
+                ? postRepository.findFullTextIdsAfterCursor(query, createdAt, id, limit)
+                : postRepository.findPublishedFullTextIdsAfterCursor(query, createdAt, id, limit);
+        List<Long> result = new ArrayList<>(ids.size());
+        ids.forEach(postId -> result.add(postId.longValue()));
+        return result;
+    }
+
+    @Override
+    public int[] matchOffsets(Long postId, String text, String query) {
+        Set<String> terms = new HashSet<>(SearchTokenizer.tokenize(query));
+        return SearchTokenizer.tokenizeWithOffsets(text).stream()
+                .filter(token -> terms.contains(token.term))
+                .mapToInt(token -> token.offset)
+                .toArray();
+    }
+}
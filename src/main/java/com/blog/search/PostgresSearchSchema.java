@@ -0,0 +1,118 @@
+package com.blog.search;
+
+import com.blog.event.CategoryChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Adds the full-text columns Hibernate does not manage when running on PostgreSQL: a stored
+ * generated {@code search_vector} over title (weight A), tags (B), category names (C) and
+ * HTML-stripped content (D), and its GIN index. Runs after Hibernate has updated the schema
+ * and is idempotent.
+ * <p>
+ * A generated column can only read its own row, so category names are denormalized into
+ * {@code search_categories}, which is refreshed here when a category changes.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class PostgresSearchSchema {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresSearchSchema.class);
+
+    private static final String ADD_SEARCH_VECTOR =
+            "ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+                    "setweight(to_tsvector('simple', coalesce(title, '')), 'A') || " +
+                    "setweight(to_tsvector('simple', coalesce(search_tags, '')), 'B') || " +
+                    "setweight(to_tsvector('simple', coalesce(search_categories, '')), 'C') || " +
+                    "setweight(to_tsvector('simple', regexp_replace(coalesce(content, ''), '<[^>]*>', ' ', 'g')), 'D')" +
+                    ") STORED";
+
+    // A vector generated before category names were indexed; dropping it also drops its index
+    private static final String COUNT_OUTDATED_SEARCH_VECTOR =
+            "SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = current_schema() " +
+                    "AND table_name = 'posts' AND column_name = 'search_vector' " +
+                    "AND generation_expression NOT LIKE '%search_categories%'";
+
+    private static final String DROP_SEARCH_VECTOR = "ALTER TABLE posts DROP COLUMN search_vector";
+
+    private static final String CREATE_GIN_INDEX =
+            "CREATE INDEX IF NOT EXISTS idx_posts_search_vector ON posts USING GIN (search_vector)";
+
+    // Rows written before search_tags existed
+    private static final String BACKFILL_SEARCH_TAGS =
+            "UPDATE posts p SET search_tags = coalesce(" +
+                    "(SELECT string_agg(t.tag, ' ') FROM post_tags t WHERE t.post_id = p.id), '') " +
+                    "WHERE p.search_tags IS NULL";
+
+    private static final String CATEGORY_NAMES =
+            "SELECT string_agg(c.name, ' ' ORDER BY c.id) FROM post_categories pc " +
+                    "JOIN categories c ON c.id = pc.category_id WHERE pc.post_id = p.id";
+
+    // Rows written before search_categories existed
+    private static final String BACKFILL_SEARCH_CATEGORIES =
+            "UPDATE posts p SET search_categories = coalesce((" + CATEGORY_NAMES + "), '') " +
+                    "WHERE p.search_categories IS NULL";
+
+    // Only rows whose names actually change are rewritten
+    private static final String REFRESH_SEARCH_CATEGORIES =
+            "UPDATE posts p SET search_categories = coalesce((" + CATEGORY_NAMES + "), '') " +
+                    "WHERE p.id = ANY (?) " +
+                    "AND p.search_categories IS DISTINCT FROM coalesce((" + CATEGORY_NAMES + "), '')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostSearchMode searchMode;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @PostConstruct
+    public void createSearchColumns() {
+        if (searchMode != PostSearchMode.POSTGRES) {
+            return;
+        }
+        int backfilled = jdbcTemplate.update(BACKFILL_SEARCH_TAGS) + jdbcTemplate.update(BACKFILL_SEARCH_CATEGORIES);
+        Integer outdated = jdbcTemplate.queryForObject(COUNT_OUTDATED_SEARCH_VECTOR, Integer.class);
+        if (outdated != null && outdated > 0) {
+            log.info("Recreating the PostgreSQL search vector to include category names");
+            jdbcTemplate.execute(DROP_SEARCH_VECTOR);
+        }
+        jdbcTemplate.execute(ADD_SEARCH_VECTOR);
+        jdbcTemplate.execute(CREATE_GIN_INDEX);
+        log.info("PostgreSQL full-text search column ready ({} backfilled columns)", backfilled);
+    }
+
+    /**
+     * Refreshes the indexed category names of the posts in a created, renamed or deleted
+     * category, in the same transaction as the change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (searchMode != PostSearchMode.POSTGRES) {
+            return;
+        }
+        if (event.getPostIds().isEmpty()) {
+            return;
+        }
+        // The category row itself is only written at flush
+        entityManager.flush();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(REFRESH_SEARCH_CATEGORIES);
+            statement.setArray(1, connection.createArrayOf("bigint", event.getPostIds().toArray()));
+            return statement;
+        });
+    }
+}
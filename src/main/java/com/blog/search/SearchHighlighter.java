@@ -0,0 +1,71 @@
+package com.blog.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Builds a short HTML-escaped snippet of plain text around the first match, wrapping each
+ * match that falls inside the window in {@code <mark>} tags.
+ */
+public final class SearchHighlighter {
+
+    private static final int DEFAULT_LENGTH = 200;
+
+    private SearchHighlighter() {
+    }
+
+    public static String snippet(String text, int[] matchOffsets) {
+        return snippet(text, matchOffsets, DEFAULT_LENGTH);
+    }
+
+    /**
+     * @param text         the HTML-stripped text the offsets were computed against
+     * @param matchOffsets sorted start offsets of matched terms in {@code text}
+     * @param maxLength    approximate snippet length in characters
+     */
+    public static String snippet(String text, int[] matchOffsets, int maxLength) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        int first = matchOffsets.length > 0 ? Math.min(matchOffsets[0], text.length()) : 0;
+        int start = Math.max(0, first - maxLength / 3);
+        if (start > 0) {
+            int space = text.indexOf(' ', start);
+            start = space >= 0 && space < first ? space + 1 : first;
+        }
+        int end = Math.min(text.length(), start + maxLength);
+        if (end < text.length()) {
+            int space = text.lastIndexOf(' ', end);
+            if (space > start) {
+                end = space;
+            }
+        }
+
+        StringBuilder snippet = new StringBuilder();
+        if (start > 0) {
+            snippet.append("...");
+        }
+        int cursor = start;
+        for (int offset : matchOffsets) {
+            if (offset < cursor || offset >= end) {
+                continue;
+            }
+            int wordEnd = offset;
+            while (wordEnd < end && SearchTokenizer.isWordChar(text.charAt(wordEnd))) {
+                wordEnd++;
+            }
+            appendText(snippet, text.substring(cursor, offset));
+            snippet.append("<mark>").append(HtmlUtils.htmlEscape(text.substring(offset, wordEnd))).append("</mark>");
+            cursor = wordEnd;
+        }
+        appendText(snippet, text.substring(cursor, end));
+        if (end < text.length()) {
+            snippet.append("...");
+        }
+        return snippet.toString().trim();
+    }
+
+    private static void appendText(StringBuilder snippet, String text) {
+        snippet.append(HtmlUtils.htmlEscape(text.replaceAll("\\s+", " ")));
+    }
+}
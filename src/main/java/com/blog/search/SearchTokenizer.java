@@ -0,0 +1,78 @@
+package com.blog.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into normalized index terms: HTML stripped, accents removed, case folded
+ * and split on anything that is not a letter or digit.
+ */
+public final class SearchTokenizer {
+
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern HTML_ENTITY = Pattern.compile("&[#a-zA-Z0-9]+;");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}\\p{M}]+");
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * A term together with the offset of its first character in the tokenized text.
+     */
+    public static final class Token {
+
+        public final String term;
+        public final int offset;
+
+        Token(String term, int offset) {
+            this.term = term;
+            this.offset = offset;
+        }
+    }
+
+    public static String stripHtml(String html) {
+        if (html == null) {
+            return "";
+        }
+        String text = HTML_TAG.matcher(html).replaceAll(" ");
+        return HTML_ENTITY.matcher(text).replaceAll(" ");
+    }
+
+    public static String normalize(String token) {
+        String folded = Normalizer.normalize(token, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(folded).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    public static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK
+                || Character.getType(c) == Character.COMBINING_SPACING_MARK;
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        for (Token token : tokenizeWithOffsets(text)) {
+            terms.add(token.term);
+        }
+        return terms;
+    }
+
+    public static List<Token> tokenizeWithOffsets(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            String term = normalize(matcher.group());
+            if (!term.isEmpty()) {
+                tokens.add(new Token(term, matcher.start()));
+            }
+        }
+        return tokens;
+    }
+}
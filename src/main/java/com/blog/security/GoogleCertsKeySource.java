@@ -0,0 +1,53 @@
+package com.blog.security;
+
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.util.List;
+
+/**
+ * Google's signing certificates, fetched once and kept in memory until the expiry their
+ * Cache-Control header allows. A background check refreshes them
+ * {@code google.certs.refresh-ahead-ms} before that expiry, so logins only wait on the
+ * network if the background refresh has been failing. A failed refresh keeps the current
+ * certificates.
+ */
+@Component
+public class GoogleCertsKeySource implements GoogleKeySource {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleCertsKeySource.class);
+
+    private final GooglePublicKeysManager keysManager =
+            new GooglePublicKeysManager(new NetHttpTransport(), GsonFactory.getDefaultInstance());
+
+    @Value("${google.certs.refresh-ahead-ms:600000}")
+    private long refreshAheadMillis;
+
+    @Override
+    public List<PublicKey> getPublicKeys() throws GeneralSecurityException, IOException {
+        return keysManager.getPublicKeys();
+    }
+
+    // The first run at startup loads the certificates before the first login needs them
+    @Scheduled(fixedDelayString = "${google.certs.refresh-check-ms:60000}")
+    public void refreshIfExpiring() {
+        if (System.currentTimeMillis() + refreshAheadMillis < keysManager.getExpirationTimeMilliseconds()) {
+            return;
+        }
+        try {
+            keysManager.refresh();
+            log.debug("Refreshed Google signing certificates");
+        } catch (GeneralSecurityException | IOException e) {
+            log.warn("Could not refresh Google signing certificates: {}", e.getMessage());
+        }
+    }
+}
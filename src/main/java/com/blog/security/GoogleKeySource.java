@@ -0,0 +1,16 @@
+package com.blog.security;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.util.List;
+
+/**
+ * Supplies the public keys Google ID tokens are checked against. The production source
+ * is {@link GoogleCertsKeySource}; a test configuration can declare a {@code @Primary}
+ * source with fixed keys to verify self-signed tokens without network access.
+ */
+public interface GoogleKeySource {
+
+    List<PublicKey> getPublicKeys() throws GeneralSecurityException, IOException;
+}
@@ -0,0 +1,58 @@
+package com.blog.security;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.json.gson.GsonFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Verifies Google ID tokens: issuer, audience and expiry first, then the signature against
+ * the keys of the {@link GoogleKeySource}. One instance serves every login, so the key
+ * source's certificates are reused instead of fetched per login.
+ */
+@Component
+public class GoogleTokenVerifier {
+
+    private static final List<String> ISSUERS = List.of("accounts.google.com", "https://accounts.google.com");
+
+    // Allowed clock difference between us and Google when checking iat and exp
+    private static final long CLOCK_SKEW_SECONDS = 300;
+
+    @Autowired
+    private GoogleKeySource keySource;
+
+    @Value("${google.clientId}")
+    private String googleClientId;
+
+    /**
+     * @return the verified token, or null when the token is invalid, expired or not meant for us
+     */
+    public GoogleIdToken verify(String idTokenString) throws GeneralSecurityException, IOException {
+        GoogleIdToken idToken;
+        try {
+            idToken = GoogleIdToken.parse(GsonFactory.getDefaultInstance(), idTokenString);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        if (!idToken.verifyIssuer(ISSUERS)
+                || !idToken.verifyAudience(Collections.singletonList(googleClientId))
+                || !idToken.verifyTime(System.currentTimeMillis(), CLOCK_SKEW_SECONDS)) {
+            return null;
+        }
+
+        for (PublicKey key : keySource.getPublicKeys()) {
+            if (idToken.verifySignature(key)) {
+                return idToken;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,88 @@
+package com.blog.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The HMAC keys tokens are signed and verified with, decoded once at startup.
+ * <p>
+ * New tokens are signed with the current key and name it in their {@code kid} header.
+ * Retired keys stay in the ring for verification only, so rotating {@code jwt.secret}
+ * to a new key id keeps sessions signed with the old key alive until they expire.
+ * Tokens without a {@code kid} predate the ring and are verified with the current key. Some
+ * of them were signed with HS512, which jjwt refuses to verify with a key under 512 bits;
+ * those are rejected as legacy tokens (their users sign in again) rather than failing on a
+ * weak-key error.
+ */
+@Component
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    private final String currentKeyId;
+
+    private final SecretKey currentKey;
+
+    private final Map<String, SecretKey> keys;
+
+    public JwtKeyRing(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.key-id:primary}") String keyId,
+                      @Value("${jwt.retired-keys:}") String retiredKeys) {
+        Map<String, SecretKey> ring = new HashMap<>();
+        // Format: kid:base64Secret[,kid:base64Secret...]
+        for (String entry : StringUtils.commaDelimitedListToStringArray(retiredKeys)) {
+            String trimmed = entry.trim();
+            int separator = trimmed.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("jwt.retired-keys entries must be kid:base64Secret");
+            }
+            ring.put(trimmed.substring(0, separator), decode(trimmed.substring(separator + 1)));
+        }
+        this.currentKeyId = keyId;
+        this.currentKey = decode(secret);
+        ring.put(keyId, currentKey);
+        this.keys = Collections.unmodifiableMap(ring);
+    }
+
+    public String getCurrentKeyId() {
+        return currentKeyId;
+    }
+
+    public SecretKey getCurrentKey() {
+        return currentKey;
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            int requiredBits = SignatureAlgorithm.forName(header.getAlgorithm()).getMinKeyLength();
+            if (currentKey.getEncoded().length * 8 < requiredBits) {
+                throw new UnsupportedJwtException("Legacy " + header.getAlgorithm() +
+                        " token cannot be verified with a key shorter than " + requiredBits + " bits");
+            }
+            return currentKey;
+        }
+        SecretKey key = keys.get(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key: " + keyId);
+        }
+        return key;
+    }
+
+    private static SecretKey decode(String base64Secret) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
+    }
+}
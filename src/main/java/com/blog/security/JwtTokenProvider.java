@@ -2,13 +2,12 @@ package com.blog.security;
 
 import com.blog.model.User;
 import io.jsonwebtoken.*;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
 import java.util.Date;
 
 /**
@@ -21,21 +20,33 @@ import java.util.Date;
 @Component
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
     @Value("${jwt.expirationMs}")
     private long jwtExpirationMs;
 
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokens;
+
+    // Built once; the parser is immutable and safe to share between requests
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        parser = Jwts.parserBuilder().setSigningKeyResolver(keyRing).build();
+    }
+
     public String generateToken(String email) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.getCurrentKeyId())
                 .setSubject(email)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(SignatureAlgorithm.HS512, jwtSecret)
+                .signWith(keyRing.getCurrentKey())
                 .compact();
     }
 
@@ -48,45 +59,42 @@ public class JwtTokenProvider {
         claims.put("role", user.getRole());
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.getCurrentKeyId())
                 .setClaims(claims)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(SignatureAlgorithm.HS512, jwtSecret)
+                .signWith(keyRing.getCurrentKey())
                 .compact();
     }
 
     public String getUserEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(jwtSecret)
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
-    }
-
-    public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(jwtSecret)
-                .parseClaimsJws(token)
-                .getBody();
-
-        String email = claims.getSubject();
-        String role = (String) claims.get("role");
-
-        SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" +
-                (role != null ? role : "USER"));
-
-        return new UsernamePasswordAuthenticationToken(email, "", Collections.singletonList(authority));
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token);
-            return true;
-        } catch (SignatureException | MalformedJwtException | ExpiredJwtException |
-                 UnsupportedJwtException | IllegalArgumentException e) {
-            return false;
+    /**
+     * Verifies the token once and returns its authentication, or null when the token is
+     * invalid or expired. Tokens verified before are answered from {@link VerifiedTokenCache}
+     * without parsing or signature checks.
+     */
+    public Authentication authenticate(String token) {
+        String digest = VerifiedTokenCache.digest(token);
+        VerifiedToken verified = verifiedTokens.get(digest);
+        if (verified == null) {
+            Claims claims;
+            try {
+                claims = parser.parseClaimsJws(token).getBody();
+            } catch (JwtException | IllegalArgumentException e) {
+                return null;
+            }
+            // Tokens are always issued with an expiry; one without is not cached
+            if (claims.getExpiration() == null) {
+                return new VerifiedToken(claims.getSubject(), (String) claims.get("role"), 0).toAuthentication();
+            }
+            verified = new VerifiedToken(claims.getSubject(), (String) claims.get("role"),
+                    claims.getExpiration().getTime());
+            verifiedTokens.put(digest, verified);
         }
+        return verified.toAuthentication();
     }
 }
 
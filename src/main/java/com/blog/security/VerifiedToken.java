@@ -0,0 +1,33 @@
+package com.blog.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+
+/**
+ * The claims of a token whose signature and expiry have been checked.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class VerifiedToken {
+
+    private final String email;
+
+    private final String role;
+
+    private final long expiresAtMillis;
+
+    /**
+     * Builds a fresh authentication for one request; the token itself is shared.
+     */
+    public Authentication toAuthentication() {
+        SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + (role != null ? role : "USER"));
+        return new UsernamePasswordAuthenticationToken(email, "", Collections.singletonList(authority));
+    }
+}
@@ -0,0 +1,38 @@
+package com.blog.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recounts category post counts at startup, which also fills them in for existing data, and
+ * then on the {@code blog.categories.post-count-reconcile-cron} schedule to correct any drift
+ * from writes that bypassed PostService.
+ */
+@Component
+public class CategoryPostCountReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryPostCountReconciler.class);
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(cron = "${blog.categories.post-count-reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        int corrected = categoryService.reconcilePostCounts();
+        if (corrected > 0) {
+            log.warn("Corrected post counts of {} categories", corrected);
+        } else {
+            log.debug("Category post counts are consistent");
+        }
+    }
+}
@@ -1,54 +1,129 @@
 package com.blog.service;
 
+import com.blog.cache.ResourceVersion;
 import com.blog.dto.CategoryDTO;
+import com.blog.dto.MenuItemDTO;
+import com.blog.event.CategoryChangedEvent;
+import com.blog.event.CategoryPostCountsChangedEvent;
 import com.blog.model.Category;
 import com.blog.repository.CategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
-import java.util.stream.Collectors;
-import org.springframework.data.domain.Sort;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
 
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Swapped as a whole after each committed category change; null until first read
+    private final AtomicReference<CategorySnapshot> snapshot = new AtomicReference<>();
+
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
-    @Transactional(readOnly = true)
+    // Reads are served from the snapshot without touching the database
+
     public List<CategoryDTO> getAllCategories() {
-        return categoryRepository.findAll(Sort.by(Sort.Direction.ASC, "menuOrder"))
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return snapshot().getCategories();
     }
 
-    @Transactional(readOnly = true)
     public List<CategoryDTO> getCategoriesForMenu() {
-        return categoryRepository.findCategoriesForMenu()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return snapshot().getMenuCategories();
+    }
+
+    /**
+     * The menu: Home followed by the menu categories, sorted by menu order.
+     */
+    public List<MenuItemDTO> getMenuItems() {
+        return snapshot().getMenuItems();
     }
 
-    @Transactional(readOnly = true)
     public CategoryDTO getCategoryById(Long id) {
-        return categoryRepository.findById(id)
-                .map(this::convertToDTO)
-                .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
+        CategoryDTO category = snapshot().findById(id);
+        if (category == null) {
+            throw new RuntimeException("Category not found with id: " + id);
+        }
+        return category;
     }
 
-    @Transactional(readOnly = true)
     public CategoryDTO getCategoryBySlug(String slug) {
-        return categoryRepository.findBySlug(slug)
-                .map(this::convertToDTO)
-                .orElseThrow(() -> new RuntimeException("Category not found with slug: " + slug));
+        CategoryDTO category = snapshot().findBySlug(slug);
+        if (category == null) {
+            throw new RuntimeException("Category not found with slug: " + slug);
+        }
+        return category;
+    }
+
+    /**
+     * Looks a category up by id, or by slug when no id is given, without throwing.
+     */
+    public Optional<CategoryDTO> findCategory(Long id, String slug) {
+        CategorySnapshot current = snapshot();
+        return Optional.ofNullable(id != null ? current.findById(id) : slug != null ? current.findBySlug(slug) : null);
+    }
+
+    /**
+     * Validators shared by the category listings and the menu: the snapshot version.
+     */
+    public ResourceVersion getListingVersion() {
+        return snapshot().getVersion();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuildSnapshot();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryPostCountsChanged(CategoryPostCountsChangedEvent event) {
+        rebuildSnapshot();
+    }
+
+    /**
+     * Recomputes every category's post counts in one grouped query and corrects the rows that
+     * drifted. Returns the number of categories corrected.
+     */
+    @Transactional
+    public int reconcilePostCounts() {
+        int corrected = 0;
+        for (Object[] row : categoryRepository.countPostsPerCategory()) {
+            int postCount = ((Number) row[3]).intValue();
+            int publishedPostCount = ((Number) row[4]).intValue();
+            if (((Number) row[1]).intValue() != postCount || ((Number) row[2]).intValue() != publishedPostCount) {
+                categoryRepository.setPostCounts((Long) row[0], postCount, publishedPostCount);
+                corrected++;
+            }
+        }
+        if (corrected > 0) {
+            eventPublisher.publishEvent(new CategoryPostCountsChangedEvent());
+        }
+        return corrected;
+    }
+
+    private CategorySnapshot snapshot() {
+        CategorySnapshot current = snapshot.get();
+        return current != null ? current : rebuildSnapshot();
+    }
+
+    // Serialized so that a rebuild reading older data can never replace a newer snapshot
+    private synchronized CategorySnapshot rebuildSnapshot() {
+        CategorySnapshot rebuilt = new CategorySnapshot(categoryRepository.findAllForSnapshot(),
+                categoryRepository.findLatestUpdate());
+        snapshot.set(rebuilt);
+        return rebuilt;
     }
 
     @Transactional
@@ -61,7 +136,9 @@ public class CategoryService {
         // Create slug from name
         category.setSlug(generateSlug(categoryDTO.getName()));
 
-        return convertToDTO(categoryRepository.save(category));
+        CategoryDTO created = convertToDTO(categoryRepository.save(category));
+        eventPublisher.publishEvent(new CategoryChangedEvent(created.getId(), List.of()));
+        return created;
     }
 
     @Transactional
@@ -72,12 +149,17 @@ public class CategoryService {
         validateCategoryName(categoryDTO.getName(), id);
         updateCategoryFromDTO(category, categoryDTO);
 
-        return convertToDTO(categoryRepository.save(category));
+        CategoryDTO updated = convertToDTO(categoryRepository.save(category));
+        eventPublisher.publishEvent(new CategoryChangedEvent(id, categoryRepository.findPostIds(id)));
+        return updated;
     }
 
     @Transactional
     public void deleteCategory(Long id) {
+        List<Long> postIds = categoryRepository.findPostIds(id);
+        categoryRepository.deletePostLinks(id);
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id, postIds));
     }
 
     private void validateCategoryName(String name, Long excludeId) {
@@ -103,24 +185,13 @@ public class CategoryService {
         dto.setDescription(category.getDescription());
         dto.setDisplayInMenu(category.isDisplayInMenu());
         dto.setMenuOrder(category.getMenuOrder());
+        dto.setPostCount(category.getPostCount());
+        dto.setPublishedPostCount(category.getPublishedPostCount());
         return dto;
     }
 
     private String generateSlug(String name) {
-        // Convert to lowercase and replace spaces with hyphens
-        String slug = name.toLowerCase().replaceAll("\\s+", "-");
-        // Remove special characters
-        slug = slug.replaceAll("[^a-z0-9-]", "");
-
-        // Check if slug exists and make it unique
-        String baseSlug = slug;
-        int count = 1;
-
-        while (categoryRepository.findBySlug(slug).isPresent()) {
-            slug = baseSlug + "-" + count;
-            count++;
-        }
-
-        return slug;
+        String base = Slugs.slugify(name, "category");
+        return Slugs.unique(base, categoryRepository.findSlugsWithPrefix(base));
     }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.blog.service;
+
+import com.blog.cache.ResourceVersion;
+import com.blog.dto.CategoryDTO;
+import com.blog.dto.MenuItemDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable view of every category and of the menu built from them, already converted and
+ * sorted. The version is a digest of the served fields, so it is the same on every instance
+ * and across restarts for the same data and can be used as the ETag directly.
+ */
+final class CategorySnapshot {
+
+    private final List<CategoryDTO> categories;
+
+    private final List<CategoryDTO> menuCategories;
+
+    private final List<MenuItemDTO> menuItems;
+
+    private final Map<Long, CategoryDTO> byId;
+
+    private final Map<String, CategoryDTO> bySlug;
+
+    private final ResourceVersion version;
+
+    /**
+     * @param categories    every category, sorted by menu order
+     * @param lastModified  latest category update time, or null when there are none
+     */
+    CategorySnapshot(List<CategoryDTO> categories, LocalDateTime lastModified) {
+        this.categories = List.copyOf(categories);
+        this.menuCategories = categories.stream()
+                .filter(CategoryDTO::isDisplayInMenu)
+                .collect(Collectors.toUnmodifiableList());
+
+        List<MenuItemDTO> items = new ArrayList<>();
+        items.add(new MenuItemDTO(0L, "Home", "/", 0, "home"));
+        for (CategoryDTO category : menuCategories) {
+            items.add(new MenuItemDTO(category.getId(), category.getName(), "/category/" + category.getSlug(),
+                    category.getMenuOrder(), "category", category.getPublishedPostCount()));
+        }
+        items.sort(Comparator.comparingInt(MenuItemDTO::getOrder));
+        this.menuItems = List.copyOf(items);
+
+        this.byId = categories.stream().collect(Collectors.toUnmodifiableMap(CategoryDTO::getId, Function.identity()));
+        this.bySlug = categories.stream().collect(Collectors.toUnmodifiableMap(CategoryDTO::getSlug, Function.identity()));
+        this.version = ResourceVersion.of("categories", digest(categories), lastModified);
+    }
+
+    List<CategoryDTO> getCategories() {
+        return categories;
+    }
+
+    List<CategoryDTO> getMenuCategories() {
+        return menuCategories;
+    }
+
+    List<MenuItemDTO> getMenuItems() {
+        return menuItems;
+    }
+
+    CategoryDTO findById(Long id) {
+        return byId.get(id);
+    }
+
+    CategoryDTO findBySlug(String slug) {
+        return bySlug.get(slug);
+    }
+
+    ResourceVersion getVersion() {
+        return version;
+    }
+
+    private static String digest(List<CategoryDTO> categories) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (CategoryDTO category : categories) {
+            String line = category.getId() + "|" + category.getName() + "|" + category.getSlug() + "|"
+                    + category.getDescription() + "|" + category.isDisplayInMenu() + "|" + category.getMenuOrder()
+                    + "|" + category.getPostCount() + "|" + category.getPublishedPostCount() + "\n";
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 8);
+    }
+}
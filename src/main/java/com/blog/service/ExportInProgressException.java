@@ -0,0 +1,15 @@
+package com.blog.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when as many exports as allowed are already streaming.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class ExportInProgressException extends RuntimeException {
+
+    public ExportInProgressException(String message) {
+        super(message);
+    }
+}
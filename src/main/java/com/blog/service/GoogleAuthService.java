@@ -3,23 +3,18 @@ package com.blog.service;
 import com.blog.dto.AuthResponse;
 import com.blog.dto.UserDTO;
 import com.blog.model.User;
+import com.blog.security.GoogleTokenVerifier;
 import com.blog.security.JwtTokenProvider;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken.Payload;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-
 @Service
 public class GoogleAuthService {
 
-    @Value("${google.clientId}")
-    private String googleClientId;
+    @Autowired
+    private GoogleTokenVerifier googleTokenVerifier;
 
     @Autowired
     private UserService userService;
@@ -29,12 +24,7 @@ public class GoogleAuthService {
 
     public AuthResponse authenticateWithGoogle(String idTokenString) {
         try {
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                    new NetHttpTransport(), new GsonFactory())
-                    .setAudience(Collections.singletonList(googleClientId))
-                    .build();
-
-            GoogleIdToken idToken = verifier.verify(idTokenString);
+            GoogleIdToken idToken = googleTokenVerifier.verify(idTokenString);
             if (idToken == null) {
                 throw new IllegalArgumentException("Invalid ID token");
             }
@@ -51,7 +41,7 @@ public class GoogleAuthService {
             User user = userService.createOrUpdateGoogleUser(googleId, name, email, pictureUrl);
 
             // Generate JWT token
-            String token = tokenProvider.generateToken(user.getEmail());
+            String token = tokenProvider.generateToken(user);
 
             // Convert user to DTO
             UserDTO userDTO = new UserDTO(
@@ -1,50 +1,38 @@
 package com.blog.service;
 
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.CannedAccessControlList;
-import com.amazonaws.services.s3.model.ObjectMetadata;
-import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.blog.dto.ImageUploadResult;
+import com.blog.dto.ImageVariantDTO;
+import com.blog.storage.BlobUploader;
+import com.blog.storage.ImageVariantPipeline;
+import com.blog.storage.StoredUpload;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.io.InputStream;
+import java.util.List;
 
 @Service
 public class ImageService {
 
     @Autowired
-    private AmazonS3 s3Client;
+    private BlobUploader uploader;
 
-    @Value("${aws.s3.bucket}")
-    private String bucketName;
-
-    public String uploadImage(MultipartFile file) throws IOException {
-        if (file.isEmpty()) {
-            throw new IllegalArgumentException("File cannot be empty");
-        }
-
-        // Generate unique file name
-        String fileName = UUID.randomUUID().toString() + "-" + file.getOriginalFilename();
-
-        // Set metadata
-        ObjectMetadata metadata = new ObjectMetadata();
-        metadata.setContentType(file.getContentType());
-        metadata.setContentLength(file.getSize());
-
-        // Upload file to S3
-        PutObjectRequest request = new PutObjectRequest(
-                bucketName,
-                fileName,
-                file.getInputStream(),
-                metadata
-        ).withCannedAcl(CannedAccessControlList.PublicRead);
-
-        s3Client.putObject(request);
-
-        // Return the URL of the uploaded file
-        return s3Client.getUrl(bucketName, fileName).toString();
+    @Autowired
+    private ImageVariantPipeline variantPipeline;
+
+    /**
+     * Streams an image into blob storage as it is read, stored once per distinct content, and
+     * returns its URL with the manifest of its resized variants.
+     */
+    public ImageUploadResult uploadImage(String originalFilename, String contentType, InputStream content) throws IOException {
+        StoredUpload upload = uploader.upload(originalFilename, contentType, content);
+
+        // A repeat whose variants were dropped, failed or are still in progress queues them
+        // again; regenerating them stores the same objects under the same keys
+        List<ImageVariantDTO> variants = upload.isVariantsReady()
+                ? variantPipeline.manifest(upload.getKey(), upload.getContentType())
+                : variantPipeline.submit(upload.getKey(), upload.getContentType());
+        return new ImageUploadResult(upload.getUrl(), variants);
     }
 }
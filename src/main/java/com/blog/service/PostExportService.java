@@ -0,0 +1,203 @@
+package com.blog.service;
+
+import com.blog.dto.CategoryDTO;
+import com.blog.dto.PostDTO;
+import com.blog.dto.UserDTO;
+import com.blog.repository.PostRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes every post as newline-delimited JSON in the {@link PostDTO} shape accepted by
+ * {@link PostImportService}, in ID order.
+ * <p>
+ * Posts are read through one forward-only JDBC cursor with a fixed fetch size inside a single
+ * read-only transaction, so the export is a consistent snapshot. Rows are mapped straight to
+ * DTOs; no entity is ever loaded, so there is no persistence context to grow. Tags and
+ * category IDs are fetched per batch of {@value #BATCH_SIZE} posts and categories resolved from
+ * the in-memory snapshot. Only one batch is held at a time, so heap use does not depend on
+ * the number of posts.
+ * <p>
+ * An export holds a connection and a cursor for as long as the client takes to download it,
+ * so at most {@code blog.export.max-concurrent} run at once; further requests are turned
+ * away with 429 before any of the response is written.
+ */
+@Service
+public class PostExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostExportService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String SELECT_POSTS = "SELECT p.id, p.title, p.slug, p.content, p.cover_image, p.excerpt, " +
+            "p.reading_time_minutes, p.published, p.created_at, p.updated_at, " +
+            "u.id AS author_id, u.name AS author_name, u.email AS author_email, u.picture_url AS author_picture_url " +
+            "FROM posts p LEFT JOIN users u ON u.id = p.author_id ORDER BY p.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${blog.export.max-concurrent:1}")
+    private int maxConcurrentExports;
+
+    private Semaphore exportPermits;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        exportPermits = new Semaphore(maxConcurrentExports);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Reserves an export slot and returns a body that streams the export and then frees the
+     * slot. The returned body must be run.
+     *
+     * @throws ExportInProgressException if every slot is taken
+     */
+    public StreamingResponseBody prepareExport(boolean gzip) {
+        if (!exportPermits.tryAcquire()) {
+            throw new ExportInProgressException("Another export is in progress");
+        }
+        return out -> {
+            try {
+                exportPosts(out, gzip);
+            } finally {
+                exportPermits.release();
+            }
+        };
+    }
+
+    public void exportPosts(OutputStream out, boolean gzip) throws IOException {
+        long start = System.currentTimeMillis();
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        long exported;
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(target)) {
+            exported = readOnlyTransaction.execute(status -> streamPosts(writer));
+            target.write('\n');
+        }
+        log.info("Exported {} posts in {} ms", exported, System.currentTimeMillis() - start);
+    }
+
+    private long streamPosts(SequenceWriter writer) {
+        Map<Long, PostDTO> batch = new LinkedHashMap<>();
+        long[] exported = {0};
+
+        RowCallbackHandler handler = rs -> {
+            PostDTO post = mapPost(rs);
+            batch.put(post.getId(), post);
+            if (batch.size() == BATCH_SIZE) {
+                exported[0] += writeBatch(batch, writer);
+            }
+        };
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_POSTS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(BATCH_SIZE);
+            return statement;
+        }, handler);
+        exported[0] += writeBatch(batch, writer);
+        return exported[0];
+    }
+
+    private int writeBatch(Map<Long, PostDTO> batch, SequenceWriter writer) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        for (Object[] row : postRepository.findTagsByPostIdIn(batch.keySet())) {
+            batch.get((Long) row[0]).getTags().add((String) row[1]);
+        }
+        for (Object[] row : postRepository.findCategoryIdsByPostIdIn(batch.keySet())) {
+            categoryService.findCategory((Long) row[1], null)
+                    .ifPresent(category -> batch.get((Long) row[0]).getCategories().add(category));
+        }
+
+        int written = batch.size();
+        try {
+            for (PostDTO post : batch.values()) {
+                post.getCategories().stream()
+                        .min(Comparator.comparing(CategoryDTO::getMenuOrder))
+                        .ifPresent(post::setPrimaryCategory);
+                writer.write(post);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        batch.clear();
+        return written;
+    }
+
+    private static PostDTO mapPost(ResultSet rs) throws SQLException {
+        PostDTO post = new PostDTO();
+        post.setId(rs.getLong("id"));
+        post.setTitle(rs.getString("title"));
+        post.setSlug(rs.getString("slug"));
+        post.setContent(rs.getString("content"));
+        post.setCoverImage(rs.getString("cover_image"));
+        post.setExcerpt(rs.getString("excerpt"));
+        post.setReadingTimeMinutes(rs.getObject("reading_time_minutes", Integer.class));
+        post.setPublished(rs.getBoolean("published"));
+        post.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        post.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+        post.setTags(new ArrayList<>());
+        post.setCategories(new HashSet<>());
+
+        long authorId = rs.getLong("author_id");
+        if (!rs.wasNull()) {
+            UserDTO author = new UserDTO();
+            author.setId(authorId);
+            author.setName(rs.getString("author_name"));
+            author.setEmail(rs.getString("author_email"));
+            author.setPictureUrl(rs.getString("author_picture_url"));
+            post.setAuthor(author);
+        }
+        return post;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
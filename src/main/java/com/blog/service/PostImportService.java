@@ -0,0 +1,365 @@
+package com.blog.service;
+
+import com.blog.dto.CategoryDTO;
+import com.blog.dto.ImportResult;
+import com.blog.dto.PostDTO;
+import com.blog.event.CategoryPostCountsChangedEvent;
+import com.blog.event.PostChangeType;
+import com.blog.event.PostChangedEvent;
+import com.blog.model.Post;
+import com.blog.repository.CategoryRepository;
+import com.blog.repository.PostRepository;
+import com.blog.repository.UserRepository;
+import com.blog.storage.BlobIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports posts from newline-delimited JSON, one {@link PostDTO} per line.
+ * <p>
+ * The input is read one line at a time and processed in chunks of {@value #CHUNK_SIZE}
+ * records, each in its own transaction, so memory stays flat whatever the file size.
+ * Per chunk, authors are resolved in one query, categories from the in-memory snapshot,
+ * slugs with one existence query, and posts, tags and category links are written as JDBC
+ * batches rather than one IDENTITY insert per post. Bad records are reported by line and
+ * skipped; a chunk that fails in the database is reported as a whole.
+ */
+@Service
+public class PostImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostImportService.class);
+
+    static final int CHUNK_SIZE = 500;
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private static final String INSERT_POST = "INSERT INTO posts (title, slug, content, cover_image, excerpt, " +
+            "reading_time_minutes, search_tags, search_categories, published, author_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TAG = "INSERT INTO post_tags (post_id, tag) VALUES (?, ?)";
+
+    private static final String INSERT_POST_CATEGORY =
+            "INSERT INTO post_categories (post_id, category_id) VALUES (?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BlobIndex blobIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Posts without an author email are attributed to the current user.
+     */
+    public ImportResult importPosts(InputStream ndjson) throws IOException {
+        String currentUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
+        Long defaultAuthorId = userService.getPrincipal(currentUserEmail).getId();
+        ObjectReader postReader = objectMapper.readerFor(PostDTO.class);
+
+        long start = System.currentTimeMillis();
+        ImportResult result = new ImportResult();
+        List<ImportRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                chunk.add(new ImportRecord(lineNumber, postReader.readValue(line)));
+            } catch (JsonProcessingException e) {
+                fail(result, lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, defaultAuthorId, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, defaultAuthorId, result);
+        }
+
+        log.info("Imported {} posts ({} failed) in {} ms", result.getImported(), result.getFailed(),
+                System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private void importChunk(List<ImportRecord> chunk, Long defaultAuthorId, ImportResult result) {
+        Map<String, Long> authorIds = resolveAuthors(chunk);
+
+        List<ImportRecord> valid = new ArrayList<>(chunk.size());
+        for (ImportRecord record : chunk) {
+            String error = prepare(record, authorIds, defaultAuthorId);
+            if (error != null) {
+                fail(result, record.line, error);
+            } else {
+                valid.add(record);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+        assignSlugs(valid);
+
+        try {
+            try {
+                insertChunk(valid);
+            } catch (DataIntegrityViolationException e) {
+                // A post created since the slugs were assigned may have taken one of them
+                log.debug("Retrying import chunk at lines {}-{} with fresh slugs", valid.get(0).line,
+                        valid.get(valid.size() - 1).line);
+                assignSlugs(valid);
+                insertChunk(valid);
+            }
+            result.setImported(result.getImported() + valid.size());
+        } catch (DataAccessException e) {
+            log.warn("Import chunk at lines {}-{} failed", valid.get(0).line, valid.get(valid.size() - 1).line, e);
+            String message = "Chunk rejected by the database: " + e.getMostSpecificCause().getMessage();
+            for (ImportRecord record : valid) {
+                fail(result, record.line, message);
+            }
+        }
+    }
+
+    private void insertChunk(List<ImportRecord> records) {
+        transactionTemplate.executeWithoutResult(status -> {
+            insert(records);
+            blobIndex.adjustReferences(blobReferences(records));
+        });
+    }
+
+    // Every imported post adds one reference to each uploaded blob it points at
+    private static Map<String, Integer> blobReferences(List<ImportRecord> records) {
+        Map<String, Integer> deltas = new HashMap<>();
+        for (ImportRecord record : records) {
+            for (String url : BlobIndex.referencedUrls(record.post.getCoverImage(), record.post.getContent())) {
+                deltas.merge(url, 1, Integer::sum);
+            }
+        }
+        return deltas;
+    }
+
+    private Map<String, Long> resolveAuthors(List<ImportRecord> chunk) {
+        Set<String> emails = chunk.stream()
+                .filter(record -> record.post.getAuthor() != null && record.post.getAuthor().getEmail() != null)
+                .map(record -> record.post.getAuthor().getEmail())
+                .collect(Collectors.toSet());
+        Map<String, Long> authorIds = new HashMap<>();
+        if (!emails.isEmpty()) {
+            for (Object[] row : userRepository.findIdsByEmailIn(emails)) {
+                authorIds.put((String) row[0], (Long) row[1]);
+            }
+        }
+        return authorIds;
+    }
+
+    /**
+     * Validates a record and fills in what the insert needs; returns an error message instead
+     * when the record cannot be imported.
+     */
+    private String prepare(ImportRecord record, Map<String, Long> authorIds, Long defaultAuthorId) {
+        PostDTO dto = record.post;
+        if (dto.getTitle() == null || dto.getTitle().isBlank()) {
+            return "Title is required";
+        }
+        if (dto.getTitle().length() > MAX_TITLE_LENGTH) {
+            return "Title cannot exceed " + MAX_TITLE_LENGTH + " characters";
+        }
+        if (dto.getContent() == null || dto.getContent().isBlank()) {
+            return "Content is required";
+        }
+
+        if (dto.getAuthor() != null && dto.getAuthor().getEmail() != null) {
+            record.authorId = authorIds.get(dto.getAuthor().getEmail());
+            if (record.authorId == null) {
+                return "Author not found with email: " + dto.getAuthor().getEmail();
+            }
+        } else {
+            record.authorId = defaultAuthorId;
+        }
+
+        if (dto.getCategories() != null) {
+            for (CategoryDTO reference : dto.getCategories()) {
+                Optional<CategoryDTO> category = categoryService.findCategory(reference.getId(), reference.getSlug());
+                if (category.isEmpty()) {
+                    return "Category not found: " + (reference.getId() != null ? reference.getId() : reference.getSlug());
+                }
+                record.categoryIds.add(category.get().getId());
+                record.categoryNames.add(category.get().getName());
+            }
+        }
+
+        // Derive excerpt, reading time and search tags exactly as a saved entity would
+        Post summary = new Post();
+        summary.setContent(dto.getContent());
+        summary.setTags(dto.getTags() != null ? dto.getTags() : new ArrayList<>());
+        summary.updateContentSummary();
+        record.summary = summary;
+
+        record.createdAt = dto.getCreatedAt() != null ? dto.getCreatedAt() : LocalDateTime.now();
+        record.updatedAt = dto.getUpdatedAt() != null ? dto.getUpdatedAt() : record.createdAt;
+        return null;
+    }
+
+    /**
+     * Gives every record a slug that is free both in the database and within the chunk. Only
+     * slugs that collide cost a further prefix query.
+     */
+    private void assignSlugs(List<ImportRecord> records) {
+        for (ImportRecord record : records) {
+            String source = record.post.getSlug() != null && !record.post.getSlug().isBlank()
+                    ? record.post.getSlug() : record.post.getTitle();
+            record.slug = Slugs.slugify(source, "post");
+        }
+        Set<String> existing = new HashSet<>(postRepository.findExistingSlugs(
+                records.stream().map(record -> record.slug).collect(Collectors.toSet())));
+
+        Set<String> taken = new HashSet<>();
+        for (ImportRecord record : records) {
+            String base = record.slug;
+            if (existing.contains(base) || taken.contains(base)) {
+                Set<String> used = new LinkedHashSet<>(postRepository.findSlugsWithPrefix(base));
+                taken.stream().filter(slug -> slug.equals(base) || slug.startsWith(base + "-")).forEach(used::add);
+                record.slug = Slugs.unique(base, used);
+            }
+            taken.add(record.slug);
+        }
+    }
+
+    private void insert(List<ImportRecord> records) {
+        jdbcTemplate.batchUpdate(INSERT_POST, records, records.size(), (ps, record) -> {
+            ps.setString(1, record.post.getTitle());
+            ps.setString(2, record.slug);
+            ps.setString(3, record.post.getContent());
+            ps.setString(4, record.post.getCoverImage());
+            ps.setString(5, record.summary.getExcerpt());
+            ps.setInt(6, record.summary.getReadingTimeMinutes());
+            ps.setString(7, record.summary.getSearchTags());
+            ps.setString(8, String.join(" ", record.categoryNames));
+            ps.setBoolean(9, record.post.isPublished());
+            ps.setLong(10, record.authorId);
+            ps.setTimestamp(11, Timestamp.valueOf(record.createdAt));
+            ps.setTimestamp(12, Timestamp.valueOf(record.updatedAt));
+        });
+
+        // Slugs are unique, so they map the batch back to its generated IDs in one query
+        Map<String, Long> ids = new HashMap<>();
+        for (Object[] row : postRepository.findIdsBySlugIn(records.stream().map(r -> r.slug).collect(Collectors.toList()))) {
+            ids.put((String) row[0], (Long) row[1]);
+        }
+
+        List<Object[]> tagRows = new ArrayList<>();
+        List<Object[]> categoryRows = new ArrayList<>();
+        Map<Long, int[]> countDeltas = new HashMap<>();
+        for (ImportRecord record : records) {
+            Long postId = ids.get(record.slug);
+            for (String tag : record.summary.getTags()) {
+                tagRows.add(new Object[]{postId, tag});
+            }
+            for (Long categoryId : record.categoryIds) {
+                categoryRows.add(new Object[]{postId, categoryId});
+                int[] delta = countDeltas.computeIfAbsent(categoryId, id -> new int[2]);
+                delta[0]++;
+                if (record.post.isPublished()) {
+                    delta[1]++;
+                }
+            }
+            eventPublisher.publishEvent(new PostChangedEvent(postId, PostChangeType.CREATED));
+        }
+        if (!tagRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TAG, tagRows);
+        }
+        if (!categoryRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_POST_CATEGORY, categoryRows);
+        }
+
+        countDeltas.forEach((categoryId, delta) -> categoryRepository.adjustPostCounts(categoryId, delta[0], delta[1]));
+        if (!countDeltas.isEmpty()) {
+            eventPublisher.publishEvent(new CategoryPostCountsChangedEvent());
+        }
+    }
+
+    private static void fail(ImportResult result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ImportResult.ImportError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static final class ImportRecord {
+
+        final long line;
+        final PostDTO post;
+        final Set<Long> categoryIds = new LinkedHashSet<>();
+        final Set<String> categoryNames = new LinkedHashSet<>();
+        Long authorId;
+        Post summary;
+        String slug;
+        LocalDateTime createdAt;
+        LocalDateTime updatedAt;
+
+        ImportRecord(long line, PostDTO post) {
+            this.line = line;
+            this.post = post;
+        }
+    }
+}
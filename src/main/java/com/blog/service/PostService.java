@@ -1,24 +1,58 @@
 package com.blog.service;
 
+import com.blog.cache.CachedUser;
+import com.blog.cache.ListingVersion;
+import com.blog.cache.PostCache;
+import com.blog.cache.ResourceVersion;
+import com.blog.cache.SerializedPost;
+import com.blog.cache.SingleFlight;
 import com.blog.dto.CategoryDTO;
+import com.blog.dto.CursorPage;
 import com.blog.dto.PostDTO;
+import com.blog.dto.PostSummaryDTO;
 import com.blog.dto.UserDTO;
+import com.blog.event.CategoryPostCountsChangedEvent;
+import com.blog.event.PostChangeType;
+import com.blog.event.PostChangedEvent;
 import com.blog.model.Category;
 import com.blog.model.Post;
 import com.blog.model.User;
 import com.blog.repository.CategoryRepository;
 import com.blog.repository.PostRepository;
+import com.blog.search.PostSearchEngine;
+import com.blog.search.PostSearchIndex;
+import com.blog.search.SearchHighlighter;
+import com.blog.search.SearchTokenizer;
+import com.blog.storage.BlobIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import jakarta.persistence.EntityNotFoundException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,62 +67,128 @@ public class PostService {
     @Autowired
     private CategoryRepository categoryRepository;
 
-    @Transactional(readOnly = true)
-    public Page<PostDTO> getAllPosts(Pageable pageable) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        boolean isAdmin = auth != null && auth.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    @Autowired
+    private CategoryService categoryService;
 
-        Page<Post> posts;
-        if (isAdmin) {
-            posts = postRepository.findAll(pageable);
-        } else {
-            posts = postRepository.findAllByPublishedTrue(pageable);
-        }
+    @Autowired
+    private PostSearchEngine searchEngine;
 
-        return posts.map(this::convertToDTO);
-    }
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private ListingVersion listingVersion;
+
+    @Autowired
+    private BlobIndex blobIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${blog.cache.posts.gzip:true}")
+    private boolean gzipCachedPosts;
 
     @Transactional(readOnly = true)
-    public Page<PostDTO> searchPosts(String searchTerm, Pageable pageable) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        boolean isAdmin = auth != null && auth.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    public Page<PostSummaryDTO> getAllPosts(Pageable pageable) {
+        boolean isAdmin = isCurrentUserAdmin();
 
-        Page<Post> posts;
+        Page<Long> postIds;
         if (isAdmin) {
-            posts = postRepository.adminSearchByTitleOrContentOrTags(searchTerm, pageable);
+            postIds = postRepository.findPageIds(pageable);
         } else {
-            posts = postRepository.searchByTitleOrContentOrTags(searchTerm, pageable);
+            postIds = postRepository.findPublishedPageIds(pageable);
         }
 
-        return posts.map(this::convertToDTO);
+        return assemblePage(postIds);
     }
 
+    /**
+     * Relevance-ranked search. Each result carries its score and a highlighted snippet.
+     */
     @Transactional(readOnly = true)
-    public Page<PostDTO> getPostsByCategory(Long categoryId, Pageable pageable) {
+    public Page<PostSummaryDTO> searchPosts(String searchTerm, Pageable pageable) {
+        Page<PostSearchIndex.SearchHit> hits = searchEngine.rank(searchTerm, isCurrentUserAdmin(), pageable);
+        List<PostSearchIndex.SearchHit> pageHits = hits.getContent();
+
+        List<PostSummaryDTO> summaries = hydrateSummaries(pageHits.stream()
+                .map(PostSearchIndex.SearchHit::getPostId)
+                .collect(Collectors.toList()));
+        Map<Long, Double> scores = pageHits.stream()
+                .collect(Collectors.toMap(PostSearchIndex.SearchHit::getPostId, PostSearchIndex.SearchHit::getScore));
+        summaries.forEach(summary -> summary.setScore(scores.get(summary.getId())));
+        addSnippets(summaries, searchTerm);
+
+        return new PageImpl<>(summaries, pageable, hits.getTotalElements());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<PostSummaryDTO> getPostsByCategory(Long categoryId, Pageable pageable) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + categoryId));
 
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        boolean isAdmin = auth != null && auth.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        boolean isAdmin = isCurrentUserAdmin();
 
-        Page<Post> posts;
+        Page<Long> postIds;
         if (isAdmin) {
-            posts = postRepository.findByCategoriesContaining(category, pageable);
+            postIds = postRepository.findPageIdsByCategory(category, pageable);
         } else {
-            posts = postRepository.findByCategoriesContainingAndPublishedTrue(category, pageable);
+            postIds = postRepository.findPublishedPageIdsByCategory(category, pageable);
+        }
+
+        return assemblePage(postIds);
+    }
+
+    /**
+     * Returns a published post as its pre-serialized response body, from {@link PostCache}
+     * without opening a transaction or building a {@link PostDTO} when cached. Returns null
+     * for an unpublished post, which is never cached and is served by {@link #getPostById}.
+     * Concurrent misses for the same post share a single load.
+     */
+    public SerializedPost getPublishedPost(Long id) {
+        SerializedPost cached = postCache.get(id);
+        if (cached != null) {
+            return cached;
         }
 
-        return posts.map(this::convertToDTO);
+        return singleFlight.execute("post", id, () -> {
+            // A flight that finished after the check above may already have cached the post
+            SerializedPost loaded = postCache.getQuietly(id);
+            if (loaded != null) {
+                return loaded;
+            }
+            long stamp = postCache.beginLoad();
+            SerializedPost serialized = transactionTemplate.execute(status -> {
+                Post post = postRepository.findById(id)
+                        .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + id));
+                return post.isPublished() ? serialize(post) : null;
+            });
+            if (serialized != null) {
+                postCache.putIfUnchanged(id, serialized, stamp);
+            }
+            return serialized;
+        });
+    }
+
+    /**
+     * Resolves a slug through the unique slug index; visibility is checked on the ID.
+     */
+    public Long getPostIdBySlug(String slug) {
+        return postRepository.findIdBySlug(slug)
+                .orElseThrow(() -> new EntityNotFoundException("Post not found with slug: " + slug));
     }
 
     @Transactional(readOnly = true)
     public PostDTO getPostById(Long id) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        boolean isAdmin = auth != null && auth.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        boolean isAdmin = isCurrentUserAdmin();
 
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + id));
@@ -100,38 +200,334 @@ public class PostService {
         return convertToDTO(post);
     }
 
-    @Transactional
+    /**
+     * Validators for GET /api/posts/{id}, or null when the post is missing or not visible to
+     * the caller. Read from the cache when the post is cached, otherwise from one scalar query.
+     */
+    public ResourceVersion getPostVersion(Long id) {
+        ResourceVersion cached = postCache.getVersion(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<Object[]> rows = postRepository.findVersionById(id);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Object[] row = rows.get(0);
+        if (!(Boolean) row[0] && !isCurrentUserAdmin()) {
+            return null;
+        }
+        return postVersion(id, (LocalDateTime) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3]);
+    }
+
+    /**
+     * Validators for the post feeds, from memory. Any post, category or author change moves them.
+     */
+    public ResourceVersion getListingVersion() {
+        return ResourceVersion.of("posts", isCurrentUserAdmin() ? "all" : "published",
+                listingVersion.get(), categoryService.getListingVersion());
+    }
+
+    public ResourceVersion getListingVersionByCategory(Long categoryId) {
+        return ResourceVersion.of("category-posts", categoryId, isCurrentUserAdmin() ? "all" : "published",
+                listingVersion.get(), categoryService.getListingVersion());
+    }
+
     public PostDTO createPost(PostDTO postDTO) {
+        return saveWithSlugRetry(pickedSlug -> insertPost(postDTO, pickedSlug));
+    }
+
+    private PostDTO insertPost(PostDTO postDTO, AtomicReference<String> pickedSlug) {
         Post post = new Post();
         updatePostFromDTO(post, postDTO);
+        post.setSlug(generateSlug(hasText(postDTO.getSlug()) ? postDTO.getSlug() : postDTO.getTitle()));
+        pickedSlug.set(post.getSlug());
 
         // Set current user as author
         String currentUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userService.findUserByEmail(currentUserEmail);
-        post.setAuthor(currentUser);
+        post.setAuthor(userService.getReference(currentUserEmail));
 
         Post savedPost = postRepository.save(post);
+        adjustCategoryPostCounts(Set.of(), false, categoryIds(savedPost), savedPost.isPublished());
+        adjustBlobReferences(Set.of(), blobUrls(savedPost));
+        eventPublisher.publishEvent(new PostChangedEvent(savedPost.getId(), PostChangeType.CREATED));
         return convertToDTO(savedPost);
     }
 
-    @Transactional
     public PostDTO updatePost(Long id, PostDTO postDTO) {
-        Post existingPost = postRepository.findById(id)
+        return saveWithSlugRetry(pickedSlug -> changePost(id, postDTO, pickedSlug));
+    }
+
+    private PostDTO changePost(Long id, PostDTO postDTO, AtomicReference<String> pickedSlug) {
+        Post existingPost = postRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + id));
 
+        Set<Long> previousCategoryIds = categoryIds(existingPost);
+        boolean wasPublished = existingPost.isPublished();
+        Set<String> previousBlobUrls = blobUrls(existingPost);
+
         updatePostFromDTO(existingPost, postDTO);
+        // Published URLs stay stable: the slug only changes when a new one is asked for
+        if (hasText(postDTO.getSlug())
+                && !Slugs.slugify(postDTO.getSlug(), "post").equals(existingPost.getSlug())) {
+            existingPost.setSlug(generateSlug(postDTO.getSlug()));
+            pickedSlug.set(existingPost.getSlug());
+        }
+        // A change to categories alone does not dirty the row, so bump the timestamp explicitly
+        existingPost.setUpdatedAt(LocalDateTime.now());
         Post updatedPost = postRepository.save(existingPost);
+        adjustCategoryPostCounts(previousCategoryIds, wasPublished, categoryIds(updatedPost), updatedPost.isPublished());
+        adjustBlobReferences(previousBlobUrls, blobUrls(updatedPost));
+        eventPublisher.publishEvent(new PostChangedEvent(updatedPost.getId(), PostChangeType.UPDATED));
 
         return convertToDTO(updatedPost);
     }
 
+    /**
+     * Runs a save in a new transaction. Two concurrent saves can pick the same free slug; the
+     * one rejected by the unique index is run once more, and then sees the other's slug. Any
+     * other integrity violation is rethrown, as is one where the slug picked is still free.
+     */
+    private PostDTO saveWithSlugRetry(Function<AtomicReference<String>, PostDTO> save) {
+        AtomicReference<String> pickedSlug = new AtomicReference<>();
+        try {
+            return transactionTemplate.execute(status -> save.apply(pickedSlug));
+        } catch (DataIntegrityViolationException e) {
+            String slug = pickedSlug.getAndSet(null);
+            if (slug == null || postRepository.findIdBySlug(slug).isEmpty()) {
+                throw e;
+            }
+            return transactionTemplate.execute(status -> save.apply(pickedSlug));
+        }
+    }
+
     @Transactional
     public void deletePost(Long id) {
-        if (!postRepository.existsById(id)) {
-            throw new EntityNotFoundException("Post not found with id: " + id);
+        Post post = postRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + id));
+        Set<Long> previousCategoryIds = categoryIds(post);
+        boolean wasPublished = post.isPublished();
+        Set<String> previousBlobUrls = blobUrls(post);
+
+        postRepository.delete(post);
+        adjustCategoryPostCounts(previousCategoryIds, wasPublished, Set.of(), false);
+        adjustBlobReferences(previousBlobUrls, Set.of());
+        eventPublisher.publishEvent(new PostChangedEvent(id, PostChangeType.DELETED));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummaryDTO> getAllPosts(String cursor, int size) {
+        size = PostCursor.clampSize(size);
+        PostCursor after = PostCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<Long> ids;
+        if (isCurrentUserAdmin()) {
+            ids = postRepository.findIdsAfterCursor(after.createdAt, after.id, limit);
+        } else {
+            ids = postRepository.findPublishedIdsAfterCursor(after.createdAt, after.id, limit);
         }
 
-        postRepository.deleteById(id);
+        return assembleCursorPage(ids, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummaryDTO> searchPosts(String searchTerm, String cursor, int size) {
+        size = PostCursor.clampSize(size);
+        PostCursor after = PostCursor.decode(cursor);
+        List<Long> ids = searchEngine.searchAfter(searchTerm, isCurrentUserAdmin(), after.createdAt, after.id, size + 1);
+
+        CursorPage<PostSummaryDTO> page = assembleCursorPage(ids, size);
+        addSnippets(page.getContent(), searchTerm);
+        return page;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummaryDTO> getPostsByCategory(Long categoryId, String cursor, int size) {
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + categoryId));
+        size = PostCursor.clampSize(size);
+        PostCursor after = PostCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<Long> ids;
+        if (isCurrentUserAdmin()) {
+            ids = postRepository.findIdsByCategoryAfterCursor(category, after.createdAt, after.id, limit);
+        } else {
+            ids = postRepository.findPublishedIdsByCategoryAfterCursor(category, after.createdAt, after.id, limit);
+        }
+
+        return assembleCursorPage(ids, size);
+    }
+
+    private boolean isCurrentUserAdmin() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+
+    private Page<PostSummaryDTO> assemblePage(Page<Long> postIds) {
+        List<PostSummaryDTO> summaries = hydrateSummaries(postIds.getContent());
+        return new PageImpl<>(summaries, postIds.getPageable(), postIds.getTotalElements());
+    }
+
+    /**
+     * Builds a keyset slice from up to {@code size + 1} IDs; the extra ID only signals
+     * that another slice exists and is not hydrated.
+     */
+    private CursorPage<PostSummaryDTO> assembleCursorPage(List<Long> ids, int size) {
+        boolean hasNext = ids.size() > size;
+        List<PostSummaryDTO> summaries = hydrateSummaries(hasNext ? ids.subList(0, size) : ids);
+
+        String nextCursor = null;
+        if (hasNext && !summaries.isEmpty()) {
+            PostSummaryDTO last = summaries.get(summaries.size() - 1);
+            nextCursor = new PostCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new CursorPage<>(summaries, nextCursor);
+    }
+
+    /**
+     * Reads the content of just these results and cuts a highlighted snippet around the
+     * indexed match offsets.
+     */
+    private void addSnippets(List<PostSummaryDTO> summaries, String searchTerm) {
+        if (summaries.isEmpty()) {
+            return;
+        }
+        List<Long> ids = summaries.stream().map(PostSummaryDTO::getId).collect(Collectors.toList());
+        Map<Long, String> contents = new HashMap<>();
+        for (Object[] row : postRepository.findContentByIdIn(ids)) {
+            contents.put((Long) row[0], (String) row[1]);
+        }
+        for (PostSummaryDTO summary : summaries) {
+            String text = SearchTokenizer.stripHtml(contents.get(summary.getId()));
+            summary.setSnippet(SearchHighlighter.snippet(text,
+                    searchEngine.matchOffsets(summary.getId(), text, searchTerm)));
+        }
+    }
+
+    /**
+     * Hydrates post IDs into summaries using a fixed number of queries regardless of how
+     * many IDs there are, preserving their order. The content column is never read.
+     */
+    private List<PostSummaryDTO> hydrateSummaries(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, PostSummaryDTO> summariesById = postRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostSummaryDTO::getId, Function.identity()));
+
+        Map<Long, Category> primaryCategories = new HashMap<>();
+        for (Object[] row : postRepository.findCategoriesByPostIdIn(ids)) {
+            Long postId = (Long) row[0];
+            Category category = (Category) row[1];
+            summariesById.get(postId).getCategories().add(convertCategoryToDTO(category));
+            primaryCategories.merge(postId, category,
+                    (c1, c2) -> c1.getMenuOrder() <= c2.getMenuOrder() ? c1 : c2);
+        }
+        primaryCategories.forEach((postId, category) ->
+                summariesById.get(postId).setPrimaryCategory(convertCategoryToDTO(category)));
+
+        for (Object[] row : postRepository.findTagsByPostIdIn(ids)) {
+            summariesById.get((Long) row[0]).getTags().add((String) row[1]);
+        }
+
+        return ids.stream()
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Applies the change in category membership and visibility of one post to the
+     * denormalized category post counts.
+     */
+    private void adjustCategoryPostCounts(Set<Long> before, boolean wasPublished, Set<Long> after, boolean isPublished) {
+        Set<Long> affected = new HashSet<>(before);
+        affected.addAll(after);
+        boolean changed = false;
+        for (Long categoryId : affected) {
+            int delta = (after.contains(categoryId) ? 1 : 0) - (before.contains(categoryId) ? 1 : 0);
+            int publishedDelta = (after.contains(categoryId) && isPublished ? 1 : 0)
+                    - (before.contains(categoryId) && wasPublished ? 1 : 0);
+            if (delta != 0 || publishedDelta != 0) {
+                categoryRepository.adjustPostCounts(categoryId, delta, publishedDelta);
+                changed = true;
+            }
+        }
+        if (changed) {
+            eventPublisher.publishEvent(new CategoryPostCountsChangedEvent());
+        }
+    }
+
+    /**
+     * Keeps the reference counts of uploaded blobs in step with the URLs one post points at.
+     */
+    private void adjustBlobReferences(Set<String> before, Set<String> after) {
+        Map<String, Integer> deltas = new HashMap<>();
+        before.stream().filter(url -> !after.contains(url)).forEach(url -> deltas.put(url, -1));
+        after.stream().filter(url -> !before.contains(url)).forEach(url -> deltas.put(url, 1));
+        if (!deltas.isEmpty()) {
+            blobIndex.adjustReferences(deltas);
+        }
+    }
+
+    private static Set<String> blobUrls(Post post) {
+        return BlobIndex.referencedUrls(post.getCoverImage(), post.getContent());
+    }
+
+    private static Set<Long> categoryIds(Post post) {
+        return post.getCategories().stream().map(Category::getId).collect(Collectors.toSet());
+    }
+
+    private SerializedPost serialize(Post post) {
+        Set<Long> categoryIds = categoryIds(post);
+        ResourceVersion version = postVersion(post.getId(), post.getUpdatedAt(), latestUpdate(post.getCategories()),
+                authorUpdatedAt(post.getAuthor()));
+        try {
+            return SerializedPost.of(objectMapper.writeValueAsBytes(convertToDTO(post)), gzipCachedPosts,
+                    version, categoryIds, post.getAuthor() != null ? post.getAuthor().getId() : null);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ResourceVersion postVersion(Long id, LocalDateTime updatedAt, LocalDateTime categoriesUpdatedAt,
+                                        LocalDateTime authorUpdatedAt) {
+        return ResourceVersion.of("post", id, updatedAt, categoriesUpdatedAt, authorUpdatedAt);
+    }
+
+    // Read the same way as convertAuthorToDTO, so an author proxy is not initialized for it
+    private LocalDateTime authorUpdatedAt(User author) {
+        if (author == null) {
+            return null;
+        }
+        if (Hibernate.isInitialized(author)) {
+            return author.getUpdatedAt();
+        }
+        CachedUser cached = userService.getPrincipal(author.getId());
+        return cached != null ? cached.getUpdatedAt() : null;
+    }
+
+    private static LocalDateTime latestUpdate(Set<Category> categories) {
+        return categories.stream()
+                .map(Category::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+    }
+
+    private String generateSlug(String text) {
+        String base = Slugs.slugify(text, "post");
+        return Slugs.unique(base, postRepository.findSlugsWithPrefix(base));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
     }
 
     private void updatePostFromDTO(Post post, PostDTO postDTO) {
@@ -161,52 +557,67 @@ public class PostService {
         PostDTO dto = new PostDTO();
         dto.setId(post.getId());
         dto.setTitle(post.getTitle());
+        dto.setSlug(post.getSlug());
         dto.setContent(post.getContent());
         dto.setCoverImage(post.getCoverImage());
+        dto.setExcerpt(post.getExcerpt());
+        dto.setReadingTimeMinutes(post.getReadingTimeMinutes());
         dto.setTags(post.getTags());
         dto.setPublished(post.isPublished());
         dto.setCreatedAt(post.getCreatedAt());
         dto.setUpdatedAt(post.getUpdatedAt());
 
         if (post.getAuthor() != null) {
-            UserDTO authorDTO = new UserDTO();
-            authorDTO.setId(post.getAuthor().getId());
-            authorDTO.setName(post.getAuthor().getName());
-            authorDTO.setEmail(post.getAuthor().getEmail());
-            authorDTO.setPictureUrl(post.getAuthor().getPictureUrl());
-            dto.setAuthor(authorDTO);
+            dto.setAuthor(convertAuthorToDTO(post.getAuthor()));
         }
 
         // Convert categories
         Set<CategoryDTO> categoryDTOs = new HashSet<>();
         if (post.getCategories() != null && !post.getCategories().isEmpty()) {
             for (Category category : post.getCategories()) {
-                CategoryDTO categoryDTO = new CategoryDTO();
-                categoryDTO.setId(category.getId());
-                categoryDTO.setName(category.getName());
-                categoryDTO.setSlug(category.getSlug());
-                categoryDTO.setDescription(category.getDescription());
-                categoryDTO.setDisplayInMenu(category.isDisplayInMenu());
-                categoryDTO.setMenuOrder(category.getMenuOrder());
-                categoryDTOs.add(categoryDTO);
+                categoryDTOs.add(convertCategoryToDTO(category));
             }
 
             // Set primary category (first one by menu order)
             post.getCategories().stream()
                     .min((c1, c2) -> c1.getMenuOrder().compareTo(c2.getMenuOrder()))
-                    .ifPresent(primaryCategory -> {
-                        CategoryDTO primaryCategoryDTO = new CategoryDTO();
-                        primaryCategoryDTO.setId(primaryCategory.getId());
-                        primaryCategoryDTO.setName(primaryCategory.getName());
-                        primaryCategoryDTO.setSlug(primaryCategory.getSlug());
-                        primaryCategoryDTO.setDescription(primaryCategory.getDescription());
-                        primaryCategoryDTO.setDisplayInMenu(primaryCategory.isDisplayInMenu());
-                        primaryCategoryDTO.setMenuOrder(primaryCategory.getMenuOrder());
-                        dto.setPrimaryCategory(primaryCategoryDTO);
-                    });
+                    .ifPresent(primaryCategory -> dto.setPrimaryCategory(convertCategoryToDTO(primaryCategory)));
         }
 
         dto.setCategories(categoryDTOs);
         return dto;
     }
+
+    private UserDTO convertAuthorToDTO(User author) {
+        UserDTO authorDTO = new UserDTO();
+        if (!Hibernate.isInitialized(author)) {
+            // An author proxy is resolved from the user cache rather than initialized with a
+            // query; reading the id does not initialize it. A user the cache cannot find is gone,
+            // and touching the proxy would only fail, so the author is left as its id.
+            authorDTO.setId(author.getId());
+            CachedUser cached = userService.getPrincipal(author.getId());
+            if (cached != null) {
+                authorDTO.setName(cached.getName());
+                authorDTO.setEmail(cached.getEmail());
+                authorDTO.setPictureUrl(cached.getPictureUrl());
+            }
+        } else {
+            authorDTO.setId(author.getId());
+            authorDTO.setName(author.getName());
+            authorDTO.setEmail(author.getEmail());
+            authorDTO.setPictureUrl(author.getPictureUrl());
+        }
+        return authorDTO;
+    }
+
+    private CategoryDTO convertCategoryToDTO(Category category) {
+        CategoryDTO dto = new CategoryDTO();
+        dto.setId(category.getId());
+        dto.setName(category.getName());
+        dto.setSlug(category.getSlug());
+        dto.setDescription(category.getDescription());
+        dto.setDisplayInMenu(category.isDisplayInMenu());
+        dto.setMenuOrder(category.getMenuOrder());
+        return dto;
+    }
 }
@@ -0,0 +1,67 @@
+package com.blog.service;
+
+import com.blog.model.Post;
+import com.blog.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills in the excerpt and reading time of posts written before those columns existed, so
+ * listings never show a null excerpt. Runs once at startup in ID-ordered batches, each in
+ * its own transaction, and leaves updatedAt alone so feed validators do not move.
+ */
+@Component
+public class PostSummaryBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(PostSummaryBackfill.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String UPDATE_SUMMARY =
+            "UPDATE posts SET excerpt = ?, reading_time_minutes = ? WHERE id = ?";
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        int backfilled = 0;
+        Long afterId = 0L;
+        while (afterId != null) {
+            List<Object[]> rows = postRepository.findContentWithoutSummaryAfterId(afterId, PageRequest.of(0, BATCH_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_SUMMARY, rows,
+                    rows.size(), (ps, row) -> {
+                        // Derived exactly as a saved entity would
+                        Post summary = new Post();
+                        summary.setContent((String) row[1]);
+                        summary.updateContentSummary();
+                        ps.setString(1, summary.getExcerpt());
+                        ps.setInt(2, summary.getReadingTimeMinutes());
+                        ps.setLong(3, (Long) row[0]);
+                    }));
+            backfilled += rows.size();
+            afterId = rows.size() < BATCH_SIZE ? null : (Long) rows.get(rows.size() - 1)[0];
+        }
+        if (backfilled > 0) {
+            log.info("Backfilled excerpt and reading time of {} posts", backfilled);
+        }
+    }
+}
@@ -1,58 +1,44 @@
 package com.blog.service;
 
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.CannedAccessControlList;
-import com.amazonaws.services.s3.model.ObjectMetadata;
-import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.blog.dto.ImageUploadResult;
+import com.blog.dto.ImageVariantDTO;
+import com.blog.storage.BlobUploader;
+import com.blog.storage.ImageVariantPipeline;
+import com.blog.storage.StoredUpload;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.UUID;
+import java.io.InputStream;
+import java.util.List;
 
 @Service
 public class S3Service {
 
     @Autowired
-    private AmazonS3 amazonS3Client;
+    private BlobUploader uploader;
 
-    @Value("${aws.s3.bucket}")
-    private String bucketName;
+    @Autowired
+    private ImageVariantPipeline variantPipeline;
 
     /**
-     * Upload a file to S3 bucket
+     * Upload a file to blob storage, streaming it as it is read. Content that was uploaded
+     * before is not stored again and the existing URL is returned
      *
-     * @param file The file to upload
-     * @return The URL of the uploaded file
+     * @param originalFilename The client's name for the file
+     * @param contentType The content type of the file
+     * @param content The file's bytes
+     * @return The URL of the uploaded file and the manifest of its resized variants
      * @throws IOException If file cannot be processed
      */
-    public String uploadFile(MultipartFile file) throws IOException {
-        // Generate a unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        }
-
-        String timestamp = DateTimeFormatter.ofPattern("yyyyMMddHHmmss").format(LocalDateTime.now());
-        String uniqueFilename = "uploads/" + timestamp + "-" + UUID.randomUUID().toString() + fileExtension;
-
-        // Set object metadata
-        ObjectMetadata metadata = new ObjectMetadata();
-        metadata.setContentLength(file.getSize());
-        metadata.setContentType(file.getContentType());
-
-        // Upload file to S3
-        amazonS3Client.putObject(
-                new PutObjectRequest(bucketName, uniqueFilename, file.getInputStream(), metadata)
-                        .withCannedAcl(CannedAccessControlList.PublicRead)
-        );
-
-        // Return the public URL
-        return amazonS3Client.getUrl(bucketName, uniqueFilename).toString();
+    public ImageUploadResult uploadFile(String originalFilename, String contentType, InputStream content) throws IOException {
+        StoredUpload upload = uploader.upload(originalFilename, contentType, content);
+
+        // A repeat whose variants were dropped, failed or are still in progress queues them
+        // again; regenerating them stores the same objects under the same keys
+        List<ImageVariantDTO> variants = upload.isVariantsReady()
+                ? variantPipeline.manifest(upload.getKey(), upload.getContentType())
+                : variantPipeline.submit(upload.getKey(), upload.getContentType());
+        return new ImageUploadResult(upload.getUrl(), variants);
     }
 }
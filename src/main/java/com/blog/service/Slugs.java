@@ -0,0 +1,63 @@
+package com.blog.service;
+
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * URL slugs for posts and categories: accents folded, lower case, runs of anything other
+ * than a-z and 0-9 collapsed to one hyphen. Collisions get a numeric suffix, picked from
+ * the slugs already taken under the same prefix so that one query is enough.
+ */
+final class Slugs {
+
+    private static final int MAX_BASE_LENGTH = 200;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_SLUG = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern EDGE_HYPHENS = Pattern.compile("^-+|-+$");
+
+    private Slugs() {
+    }
+
+    /**
+     * @param fallback used when {@code text} has no characters that survive slugging
+     */
+    static String slugify(String text, String fallback) {
+        if (text == null) {
+            return fallback;
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        String slug = NON_SLUG.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll("-");
+        slug = EDGE_HYPHENS.matcher(slug).replaceAll("");
+        if (slug.length() > MAX_BASE_LENGTH) {
+            slug = EDGE_HYPHENS.matcher(slug.substring(0, MAX_BASE_LENGTH)).replaceAll("");
+        }
+        return slug.isEmpty() ? fallback : slug;
+    }
+
+    /**
+     * Returns {@code base} if it is free, otherwise {@code base-N} with N one above the
+     * highest suffix in use.
+     *
+     * @param taken every existing slug equal to {@code base} or starting with {@code base-}
+     */
+    static String unique(String base, Collection<String> taken) {
+        if (!taken.contains(base)) {
+            return base;
+        }
+        String prefix = base + "-";
+        long highest = 0;
+        for (String slug : taken) {
+            if (!slug.startsWith(prefix)) {
+                continue;
+            }
+            String suffix = slug.substring(prefix.length());
+            if (!suffix.isEmpty() && suffix.length() < 18 && suffix.chars().allMatch(Character::isDigit)) {
+                highest = Math.max(highest, Long.parseLong(suffix));
+            }
+        }
+        return prefix + (highest + 1);
+    }
+}
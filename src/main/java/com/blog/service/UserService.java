@@ -1,9 +1,13 @@
 package com.blog.service;
 
+import com.blog.cache.CachedUser;
+import com.blog.cache.UserCache;
 import com.blog.dto.UserDTO;
+import com.blog.event.UserChangedEvent;
 import com.blog.model.User;
 import com.blog.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,6 +16,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
+import java.util.Objects;
 
 @Service
 public class UserService implements UserDetailsService {
@@ -19,56 +24,123 @@ public class UserService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private volatile boolean usersExist;
+
     @Transactional(readOnly = true)
     public User findUserByEmail(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
 
-    @Transactional(readOnly = true)
     public UserDTO getUserByEmail(String email) {
-        User user = findUserByEmail(email);
-        return convertToDTO(user);
+        return getPrincipal(email).toDTO();
     }
 
+    /**
+     * Resolves a user from the user cache, loading and caching them on a miss.
+     */
+    public CachedUser getPrincipal(String email) {
+        CachedUser cached = userCache.getByEmail(email);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = userCache.beginLoad();
+        CachedUser user = CachedUser.of(findUserByEmail(email));
+        userCache.putIfUnchanged(user, stamp);
+        return user;
+    }
+
+    /**
+     * @return the user with this id from the user cache, or null if there is none
+     */
+    public CachedUser getPrincipal(Long id) {
+        CachedUser cached = userCache.getById(id);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = userCache.beginLoad();
+        CachedUser user = userRepository.findById(id).map(CachedUser::of).orElse(null);
+        if (user != null) {
+            userCache.putIfUnchanged(user, stamp);
+        }
+        return user;
+    }
+
+    /**
+     * Returns an uninitialized reference to the user with this email, for use as an
+     * association, without reading the users table when the user is cached.
+     */
+    public User getReference(String email) {
+        return userRepository.getReferenceById(getPrincipal(email).getId());
+    }
+
+    /**
+     * Returning users cost one lookup by Google id and a write only when their profile changed.
+     */
     @Transactional
     public User createOrUpdateGoogleUser(String googleId, String name, String email, String pictureUrl) {
         User user = userRepository.findByGoogleId(googleId).orElse(null);
+        boolean changed = false;
 
         if (user == null) {
             // Check if user with same email exists
             user = userRepository.findByEmail(email).orElse(new User());
             user.setGoogleId(googleId);
+            changed = true;
         }
 
-        user.setName(name);
-        user.setEmail(email);
-        user.setPictureUrl(pictureUrl);
+        if (!Objects.equals(name, user.getName())) {
+            user.setName(name);
+            changed = true;
+        }
+        if (!Objects.equals(email, user.getEmail())) {
+            user.setEmail(email);
+            changed = true;
+        }
+        if (!Objects.equals(pictureUrl, user.getPictureUrl())) {
+            user.setPictureUrl(pictureUrl);
+            changed = true;
+        }
 
         // If first user, make them admin
-        if (userRepository.count() == 0) {
+        if (user.getId() == null && !usersExist()) {
             user.setRole("ADMIN");
+            changed = true;
         } else if (user.getRole() == null || user.getRole().isEmpty()) {
             user.setRole("USER");
+            changed = true;
         }
 
-        return userRepository.save(user);
+        if (!changed) {
+            return user;
+        }
+        user = userRepository.save(user);
+        usersExist = true;
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
+        return user;
     }
 
-    private UserDTO convertToDTO(User user) {
-        return new UserDTO(
-                user.getId(),
-                user.getName(),
-                user.getEmail(),
-                user.getPictureUrl(),
-                user.getRole()
-        );
+    /**
+     * Users are never deleted, so once one exists the answer is remembered and only the
+     * very first sign-ups probe the table, with a single-row primary key lookup.
+     */
+    private boolean usersExist() {
+        if (!usersExist) {
+            usersExist = userRepository.findFirstByOrderByIdAsc().isPresent();
+        }
+        return usersExist;
     }
 
+    // Not transactional, so cache hits never take a database connection
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = findUserByEmail(email);
+        CachedUser user = getPrincipal(email);
         return new org.springframework.security.core.userdetails.User(
                 user.getEmail(),
                 "", // No password as we're using Google Auth
@@ -0,0 +1,87 @@
+package com.blog.storage;
+
+import com.blog.model.StoredBlob;
+import com.blog.repository.StoredBlobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Digest index of stored uploads and the number of posts referencing each of them, so a
+ * cleanup can later delete blobs whose count is zero and that were not uploaded recently.
+ */
+@Component
+public class BlobIndex {
+
+    private static final Pattern IMG_SRC = Pattern.compile("<img\\b[^>]*?\\bsrc\\s*=\\s*[\"']([^\"']+)[\"']",
+            Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private StoredBlobRepository storedBlobRepository;
+
+    /**
+     * Returns the blob with this digest, counting the lookup as another upload of it, or null
+     * if the content has not been stored yet.
+     */
+    @Transactional
+    public StoredBlob recordUpload(String digest) {
+        StoredBlob blob = storedBlobRepository.findById(digest).orElse(null);
+        if (blob != null) {
+            storedBlobRepository.recordUpload(digest, LocalDateTime.now());
+        }
+        return blob;
+    }
+
+    @Transactional
+    public void register(String digest, String storageKey, String url, String contentType, long size) {
+        LocalDateTime now = LocalDateTime.now();
+        storedBlobRepository.save(new StoredBlob(digest, storageKey, url, contentType, size, 0, 1, now, now, false));
+    }
+
+    /**
+     * Records that every resized variant of the blob stored under this key exists.
+     */
+    @Transactional
+    public void markVariantsReady(String storageKey) {
+        storedBlobRepository.markVariantsReady(storageKey);
+    }
+
+    /**
+     * Applies per-URL reference count changes in the caller's transaction, with one update
+     * per distinct delta.
+     */
+    @Transactional
+    public void adjustReferences(Map<String, Integer> deltas) {
+        Map<Integer, List<String>> urlsByDelta = deltas.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        urlsByDelta.forEach((delta, urls) -> storedBlobRepository.adjustRefCounts(urls, delta));
+    }
+
+    /**
+     * The URLs a post references: its cover image and the sources of its inline images.
+     */
+    public static Set<String> referencedUrls(String coverImage, String content) {
+        Set<String> urls = new HashSet<>();
+        if (coverImage != null && !coverImage.isBlank()) {
+            urls.add(coverImage);
+        }
+        if (content != null) {
+            Matcher matcher = IMG_SRC.matcher(content);
+            while (matcher.find()) {
+                urls.add(matcher.group(1));
+            }
+        }
+        return urls;
+    }
+}
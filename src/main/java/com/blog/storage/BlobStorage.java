@@ -0,0 +1,52 @@
+package com.blog.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Where uploaded files and their generated variants are kept. {@link S3BlobStorage} stores
+ * them in an S3 bucket; {@link FileSystemBlobStorage} stores them in a local directory
+ * served by {@code GET /api/files/**}. {@code blog.storage.backend} picks one.
+ * <p>
+ * Keys are relative paths such as {@code uploads/<sha256>.png}; objects are never modified
+ * once stored under a key.
+ */
+public interface BlobStorage {
+
+    /**
+     * Reads the content to its end into storage without giving it a key yet, so the caller
+     * can choose the key, or decide not to keep the content, once all of it has been seen.
+     */
+    StagedBlob stage(String contentType, InputStream content) throws IOException;
+
+    /**
+     * Stores a small object that is already in memory, such as a generated image variant.
+     */
+    void put(String key, String contentType, byte[] content) throws IOException;
+
+    /**
+     * Opens a stored object for reading; the caller must close the stream.
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Returns the URL clients load the object from.
+     */
+    String getUrl(String key);
+
+    /**
+     * Content read by {@link #stage} and held until exactly one of these methods is called.
+     */
+    interface StagedBlob {
+
+        /**
+         * Stores the content under its final key, which may already hold identical content.
+         */
+        void commit(String key) throws IOException;
+
+        /**
+         * Drops the content without storing it anywhere.
+         */
+        void discard();
+    }
+}
@@ -0,0 +1,13 @@
+package com.blog.storage;
+
+/**
+ * Which {@link BlobStorage} implementation holds uploads, set by {@code blog.storage.backend}.
+ */
+public enum BlobStorageBackend {
+
+    /** An S3 bucket, or any S3-compatible server set with {@code aws.s3.endpoint}. */
+    S3,
+
+    /** A local directory; needs no network access, for development, CI and self-hosting. */
+    FILESYSTEM
+}
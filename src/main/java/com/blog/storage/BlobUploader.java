@@ -0,0 +1,146 @@
+package com.blog.storage;
+
+import com.blog.model.StoredBlob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Streams uploads into the {@link BlobStorage} as they are read, enforcing
+ * {@code blog.uploads.max-size} on the way.
+ * <p>
+ * Uploads are content-addressed: the SHA-256 of the content is computed while it streams,
+ * each distinct content is stored once under {@code uploads/<sha256><ext>} and recorded in
+ * the {@link BlobIndex}, and a repeat is answered from the index with its staged copy
+ * discarded instead of stored.
+ */
+@Component
+public class BlobUploader {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobUploader.class);
+
+    private static final String CONTENT_PREFIX = "uploads/";
+
+    private static final Pattern EXTENSION = Pattern.compile("\\.[a-z0-9]{1,8}");
+
+    @Autowired
+    private BlobStorage blobStorage;
+
+    @Autowired
+    private BlobIndex blobIndex;
+
+    @Value("${blog.uploads.max-size:10MB}")
+    private DataSize maxSize;
+
+    /**
+     * Stores the stream as a publicly readable blob keyed by its content and returns where
+     * it is.
+     *
+     * @throws UploadTooLargeException as soon as the stream exceeds the size limit
+     */
+    public StoredUpload upload(String originalFilename, String contentType, InputStream content) throws IOException {
+        MessageDigest sha256 = sha256();
+        SizeLimitedInputStream limited = new SizeLimitedInputStream(content, maxSize.toBytes());
+        BlobStorage.StagedBlob staged = blobStorage.stage(contentType, new DigestInputStream(limited, sha256));
+        if (limited.count == 0) {
+            staged.discard();
+            throw new IllegalArgumentException("File cannot be empty");
+        }
+
+        String digest = HexFormat.of().formatHex(sha256.digest());
+        StoredBlob existing = blobIndex.recordUpload(digest);
+        if (existing != null) {
+            staged.discard();
+            return new StoredUpload(existing.getStorageKey(), existing.getUrl(), existing.getContentType(), true,
+                    existing.isVariantsReady());
+        }
+
+        String key = CONTENT_PREFIX + digest + extensionOf(originalFilename);
+        try {
+            staged.commit(key);
+        } catch (IOException | RuntimeException e) {
+            staged.discard();
+            throw e;
+        }
+
+        String url = blobStorage.getUrl(key);
+        try {
+            blobIndex.register(digest, key, url, contentType, limited.count);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent upload of the same content registered it first; the objects are identical
+            log.debug("Blob {} was registered concurrently", digest);
+        }
+        return new StoredUpload(key, url, contentType, false, false);
+    }
+
+    // Keeps a short alphanumeric extension from the client's file name so URLs stay recognizable
+    private static String extensionOf(String filename) {
+        if (filename == null || filename.lastIndexOf('.') < 0) {
+            return "";
+        }
+        String extension = filename.substring(filename.lastIndexOf('.')).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? extension : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Fails the read that takes the stream past the limit, before the excess is buffered.
+     */
+    private static final class SizeLimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+
+        long count;
+
+        SizeLimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) {
+            count += n;
+            if (count > limit) {
+                throw new UploadTooLargeException("Upload exceeds the maximum size of " + limit + " bytes");
+            }
+        }
+    }
+}
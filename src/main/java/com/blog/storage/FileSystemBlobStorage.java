@@ -0,0 +1,110 @@
+package com.blog.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Stores blobs as files under {@code blog.storage.filesystem.root}, served by FileController
+ * at {@code blog.storage.filesystem.public-url}.
+ * <p>
+ * Content is streamed to a temporary file in the root's {@code .staging} directory and
+ * renamed into place on commit, so a file under a key is always complete and readers never
+ * see a partial write. The staging directory is on the same file system as the blobs, which
+ * keeps the rename atomic.
+ */
+public class FileSystemBlobStorage implements BlobStorage {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSystemBlobStorage.class);
+
+    private final Path root;
+
+    private final Path staging;
+
+    private final String publicUrl;
+
+    public FileSystemBlobStorage(Path root, String publicUrl) {
+        this.root = root.toAbsolutePath().normalize();
+        this.staging = this.root.resolve(".staging");
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl.substring(0, publicUrl.length() - 1) : publicUrl;
+        try {
+            Files.createDirectories(staging);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create blob directory " + staging, e);
+        }
+    }
+
+    @Override
+    public StagedBlob stage(String contentType, InputStream content) throws IOException {
+        Path temp = staging.resolve(UUID.randomUUID() + ".tmp");
+        try {
+            Files.copy(content, temp);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        return new StagedBlob() {
+            @Override
+            public void commit(String key) throws IOException {
+                moveIntoPlace(temp, key);
+            }
+
+            @Override
+            public void discard() {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Could not delete staged file {}: {}", temp, e.getMessage());
+                }
+            }
+        };
+    }
+
+    @Override
+    public void put(String key, String contentType, byte[] content) throws IOException {
+        Path temp = staging.resolve(UUID.randomUUID() + ".tmp");
+        Files.write(temp, content);
+        moveIntoPlace(temp, key);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return publicUrl + "/" + key;
+    }
+
+    /**
+     * Returns the file of a key, rejecting keys that would point outside the root or into
+     * the staging directory.
+     */
+    public Path resolve(String key) {
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root) || file.equals(root) || file.startsWith(staging)) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return file;
+    }
+
+    private void moveIntoPlace(Path temp, String key) throws IOException {
+        Path target = resolve(key);
+        try {
+            Files.createDirectories(target.getParent());
+            // Replacing is safe: a key only ever holds one content
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.blog.storage;
+
+import com.blog.dto.ImageVariantDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates resized copies of uploaded images in the background and stores them next to the
+ * original as {@code <name>-<variant>.<jpg|png>}.
+ * <p>
+ * Each image is read back from storage and decoded once. The variants of
+ * {@code blog.images.variants} are then produced from largest to smallest, each scaled down
+ * from the previous one. Images are never scaled up; a variant wider than the original is
+ * only re-encoded. Work runs on {@code blog.images.variant-workers} threads behind a queue
+ * of {@code blog.images.variant-queue-capacity}. When the queue is full, an upload gets no
+ * variants rather than waiting. Once all variants of an image are stored, its blob is
+ * marked in the {@link BlobIndex}, so a repeat upload can tell finished variants from ones
+ * that were dropped, failed or are still being generated.
+ */
+@Component
+public class ImageVariantPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantPipeline.class);
+
+    // Formats ImageIO can decode; PNG and GIF may be transparent and stay PNG
+    private static final Set<String> SUPPORTED_TYPES = Set.of("image/jpeg", "image/png", "image/gif", "image/bmp");
+
+    private static final Set<String> TRANSPARENT_TYPES = Set.of("image/png", "image/gif");
+
+    private final BlobStorage storage;
+
+    private final BlobIndex blobIndex;
+
+    // Largest first, so each variant is scaled from the one before it
+    private final List<Variant> variants;
+
+    private final float jpegQuality;
+
+    private final long maxPixels;
+
+    private final ThreadPoolExecutor workers;
+
+    private final Timer processingTimer;
+
+    private final Counter failedCounter;
+
+    public ImageVariantPipeline(BlobStorage storage, BlobIndex blobIndex, MeterRegistry meterRegistry,
+                                @Value("${blog.images.variants:thumb:150,small:300,medium:768,large:1280}") String variants,
+                                @Value("${blog.images.jpeg-quality:0.82}") float jpegQuality,
+                                @Value("${blog.images.max-pixels:40000000}") long maxPixels,
+                                @Value("${blog.images.variant-workers:2}") int workerCount,
+                                @Value("${blog.images.variant-queue-capacity:100}") int queueCapacity) {
+        this.storage = storage;
+        this.blobIndex = blobIndex;
+        this.variants = parseVariants(variants);
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "image-variants-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.processingTimer = Timer.builder("blog.images.variants.processing")
+                .description("Time to decode an uploaded image and store all of its variants")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("blog.images.variants.failed")
+                .description("Uploaded images whose variants could not be generated")
+                .register(meterRegistry);
+        Gauge.builder("blog.images.variants.queue.depth", workers.getQueue(), BlockingQueue::size)
+                .description("Uploaded images waiting for their variants")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Queues variant generation for a stored upload and returns the manifest of where the
+     * variants will appear. Returns an empty manifest for types that cannot be resized or
+     * when the queue is full.
+     */
+    public List<ImageVariantDTO> submit(String key, String contentType) {
+        List<ImageVariantDTO> manifest = manifest(key, contentType);
+        if (manifest.isEmpty()) {
+            return manifest;
+        }
+
+        boolean transparent = TRANSPARENT_TYPES.contains(contentType.toLowerCase(Locale.ROOT));
+        try {
+            workers.execute(() -> process(key, transparent));
+        } catch (RejectedExecutionException e) {
+            log.warn("Image variant queue is full, no variants for {}", key);
+            return List.of();
+        }
+        return manifest;
+    }
+
+    /**
+     * Returns where the variants of a stored image are, or would be, without generating them.
+     * Only a manifest for an image whose variants are known to be stored points at objects
+     * that exist.
+     */
+    public List<ImageVariantDTO> manifest(String key, String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (variants.isEmpty() || !SUPPORTED_TYPES.contains(type)) {
+            return List.of();
+        }
+
+        boolean transparent = TRANSPARENT_TYPES.contains(type);
+        List<ImageVariantDTO> manifest = new ArrayList<>(variants.size());
+        for (Variant variant : variants) {
+            String variantKey = variantKey(key, variant.name(), transparent);
+            manifest.add(new ImageVariantDTO(variant.name(), variant.width(), storage.getUrl(variantKey)));
+        }
+        return manifest;
+    }
+
+    private void process(String key, boolean transparent) {
+        Timer.Sample sample = Timer.start();
+        try {
+            BufferedImage image = decode(key);
+            for (Variant variant : variants) {
+                image = resize(image, variant.width(), transparent);
+                storage.put(variantKey(key, variant.name(), transparent),
+                        transparent ? "image/png" : "image/jpeg", encode(image, transparent));
+            }
+            blobIndex.markVariantsReady(key);
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.warn("Could not generate variants of {}: {}", key, e.getMessage());
+        } finally {
+            sample.stop(processingTimer);
+        }
+    }
+
+    private BufferedImage decode(String key) throws IOException {
+        // Memory cache: ImageIO's default file cache would write a temp file per image
+        try (InputStream in = storage.open(key); ImageInputStream imageIn = new MemoryCacheImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageIn);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageIn, true, true);
+                // Checked from the header before decoding, so a small file cannot claim a huge bitmap
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IOException("Image has " + pixels + " pixels, more than the limit of " + maxPixels);
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales down in steps of at most half, which keeps bilinear scaling sharp, into an image
+     * of the output type. Transparent pixels are flattened onto white for JPEG output.
+     */
+    private static BufferedImage resize(BufferedImage source, int maxWidth, boolean transparent) {
+        int targetWidth = Math.min(maxWidth, source.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        int type = transparent ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                if (!transparent) {
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, width, height);
+                }
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image, boolean transparent) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (transparent) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream imageOut = new MemoryCacheImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    static String variantKey(String key, String variant, boolean transparent) {
+        int dot = key.lastIndexOf('.');
+        String base = dot > key.lastIndexOf('/') ? key.substring(0, dot) : key;
+        return base + "-" + variant + (transparent ? ".png" : ".jpg");
+    }
+
+    // Format: name:maxWidth[,name:maxWidth...]
+    private static List<Variant> parseVariants(String spec) {
+        List<Variant> variants = new ArrayList<>();
+        for (String entry : StringUtils.commaDelimitedListToStringArray(spec)) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2 || !StringUtils.hasText(parts[0])) {
+                throw new IllegalStateException("blog.images.variants entries must be name:maxWidth, got: " + entry);
+            }
+            int width = Integer.parseInt(parts[1].trim());
+            if (width <= 0) {
+                throw new IllegalStateException("Variant width must be positive: " + entry);
+            }
+            variants.add(new Variant(parts[0].trim(), width));
+        }
+        variants.sort(Comparator.comparingInt(Variant::width).reversed());
+        return List.copyOf(variants);
+    }
+
+    private record Variant(String name, int width) {
+    }
+}
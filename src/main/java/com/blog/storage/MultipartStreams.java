@@ -0,0 +1,54 @@
+package com.blog.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a file part of a multipart/form-data request straight off the request body, without
+ * buffering it to memory or a temp file first. Spring's own multipart resolution is disabled
+ * ({@code spring.servlet.multipart.enabled=false}) so the body is still unread here.
+ */
+public final class MultipartStreams {
+
+    @FunctionalInterface
+    public interface FileHandler<T> {
+
+        /**
+         * @param content the part's bytes as they arrive; only valid during this call
+         */
+        T handle(String filename, String contentType, InputStream content) throws IOException;
+    }
+
+    private MultipartStreams() {
+    }
+
+    /**
+     * Passes the first file part named {@code fieldName} to the handler. Parts before it are
+     * skipped and parts after it are never read.
+     */
+    public static <T> T readFile(HttpServletRequest request, String fieldName, FileHandler<T> handler)
+            throws IOException {
+        if (!JakartaServletFileUpload.isMultipartContent(request)) {
+            throw new IllegalArgumentException("Expected a multipart/form-data request");
+        }
+
+        FileItemInputIterator items = new JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory>()
+                .getItemIterator(request);
+        while (items.hasNext()) {
+            FileItemInput item = items.next();
+            if (!item.isFormField() && fieldName.equals(item.getFieldName())) {
+                try (InputStream content = item.getInputStream()) {
+                    return handler.handle(item.getName(), item.getContentType(), content);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Missing file part '" + fieldName + "'");
+    }
+}
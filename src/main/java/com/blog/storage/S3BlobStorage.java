@@ -0,0 +1,237 @@
+package com.blog.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetUrlRequest;
+import software.amazon.awssdk.services.s3.model.ObjectCannedACL;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stores blobs as publicly readable objects in an S3 bucket, streaming them as they are read.
+ * <p>
+ * Content that fits in one part ({@code blog.uploads.part-size}) is held in memory while
+ * staged and sent with a single PUT on commit, so discarding it costs no request. Larger
+ * content goes up as a multipart upload to a staging key while it is read, with parts sent
+ * in parallel and at most {@code blog.uploads.parallel-parts} in flight, so an upload holds
+ * at most that many part buffers plus the one being filled and never touches the disk. It
+ * is completed and copied to its key within S3 on commit, or aborted on discard or failure
+ * so S3 does not keep its parts.
+ */
+public class S3BlobStorage implements BlobStorage {
+
+    private static final Logger log = LoggerFactory.getLogger(S3BlobStorage.class);
+
+    // S3 rejects parts smaller than 5 MiB other than the last
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private static final String STAGING_PREFIX = "staging/";
+
+    private final S3Client s3Client;
+
+    private final String bucketName;
+
+    private final int partSize;
+
+    private final int parallelParts;
+
+    private final ExecutorService partUploads;
+
+    public S3BlobStorage(S3Client s3Client, String bucketName, long partSize, int parallelParts, int uploadThreads) {
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.partSize = (int) Math.max(MIN_PART_SIZE, partSize);
+        this.parallelParts = parallelParts;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.partUploads = Executors.newFixedThreadPool(uploadThreads, runnable -> {
+            Thread thread = new Thread(runnable, "s3-part-upload-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void shutdown() {
+        partUploads.shutdownNow();
+    }
+
+    @Override
+    public StagedBlob stage(String contentType, InputStream content) throws IOException {
+        byte[] buffer = new byte[partSize];
+        int length = content.readNBytes(buffer, 0, partSize);
+        if (length < partSize) {
+            return new StagedBlob() {
+                @Override
+                public void commit(String key) {
+                    putObject(key, contentType, buffer, length);
+                }
+
+                @Override
+                public void discard() {
+                }
+            };
+        }
+
+        String stagingKey = STAGING_PREFIX + UUID.randomUUID();
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(stagingKey)
+                .contentType(contentType)
+                .build()).uploadId();
+        List<CompletedPart> parts = uploadParts(stagingKey, uploadId, content, buffer);
+
+        return new StagedBlob() {
+            @Override
+            public void commit(String key) {
+                try {
+                    s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                            .bucket(bucketName)
+                            .key(stagingKey)
+                            .uploadId(uploadId)
+                            .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                            .build());
+                } catch (RuntimeException e) {
+                    abort(stagingKey, uploadId, List.of());
+                    throw e;
+                }
+                try {
+                    s3Client.copyObject(CopyObjectRequest.builder()
+                            .sourceBucket(bucketName)
+                            .sourceKey(stagingKey)
+                            .destinationBucket(bucketName)
+                            .destinationKey(key)
+                            .acl(ObjectCannedACL.PUBLIC_READ)
+                            .build());
+                } finally {
+                    s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucketName).key(stagingKey).build());
+                }
+            }
+
+            @Override
+            public void discard() {
+                abort(stagingKey, uploadId, List.of());
+            }
+        };
+    }
+
+    @Override
+    public void put(String key, String contentType, byte[] content) {
+        putObject(key, contentType, content, content.length);
+    }
+
+    @Override
+    public InputStream open(String key) {
+        return s3Client.getObject(GetObjectRequest.builder().bucket(bucketName).key(key).build());
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return s3Client.utilities().getUrl(GetUrlRequest.builder().bucket(bucketName).key(key).build()).toString();
+    }
+
+    private void putObject(String key, String contentType, byte[] content, int length) {
+        s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .acl(ObjectCannedACL.PUBLIC_READ)
+                        .build(),
+                RequestBody.fromInputStream(new ByteArrayInputStream(content, 0, length), length));
+    }
+
+    /**
+     * Sends the parts of a multipart upload, the first of which has already been read, and
+     * returns them once all are stored. The upload is aborted if any part fails.
+     */
+    private List<CompletedPart> uploadParts(String key, String uploadId, InputStream in, byte[] firstPart)
+            throws IOException {
+        Semaphore inFlight = new Semaphore(parallelParts);
+        List<Future<CompletedPart>> parts = new ArrayList<>();
+        try {
+            byte[] buffer = firstPart;
+            int length = partSize;
+            while (length > 0) {
+                inFlight.acquire();
+                byte[] part = buffer;
+                int partLength = length;
+                int partNumber = parts.size() + 1;
+                parts.add(partUploads.submit(() -> {
+                    try {
+                        return uploadPart(key, uploadId, partNumber, part, partLength);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+                buffer = new byte[partSize];
+                length = in.readNBytes(buffer, 0, partSize);
+            }
+
+            List<CompletedPart> completed = new ArrayList<>(parts.size());
+            for (Future<CompletedPart> part : parts) {
+                completed.add(part.get());
+            }
+            return completed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(key, uploadId, parts);
+            throw new InterruptedIOException("Interrupted while uploading " + key);
+        } catch (ExecutionException e) {
+            abort(key, uploadId, parts);
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Failed to upload " + key, e.getCause());
+        } catch (IOException | RuntimeException e) {
+            abort(key, uploadId, parts);
+            throw e;
+        }
+    }
+
+    private CompletedPart uploadPart(String key, String uploadId, int partNumber, byte[] part, int length) {
+        String eTag = s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) length)
+                        .build(),
+                RequestBody.fromInputStream(new ByteArrayInputStream(part, 0, length), length)).eTag();
+        return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+    }
+
+    private void abort(String key, String uploadId, List<Future<CompletedPart>> parts) {
+        parts.forEach(part -> part.cancel(true));
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (RuntimeException e) {
+            log.warn("Could not abort multipart upload {} of {}: {}", uploadId, key, e.getMessage());
+        }
+    }
+}
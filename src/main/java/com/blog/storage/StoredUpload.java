@@ -0,0 +1,27 @@
+package com.blog.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Where an upload was stored. {@code deduplicated} is set when the content had been stored
+ * before and nothing was written; {@code variantsReady} when, in addition, all of its
+ * resized variants had been stored.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class StoredUpload {
+
+    private final String key;
+
+    private final String url;
+
+    // Of the stored content, which for a repeat is the type given on its first upload
+    private final String contentType;
+
+    private final boolean deduplicated;
+
+    private final boolean variantsReady;
+}
@@ -0,0 +1,27 @@
+package com.blog;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the JMH benchmarks of the test tree. Only part of {@code mvn -Pbenchmark test};
+ * {@code -Dbenchmark=<regex>} selects a subset, e.g. {@code -Dbenchmark=PostSearchRank}.
+ */
+@Tag("benchmark")
+class BenchmarkRunner {
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("benchmark", "com\\.blog\\..*Benchmark"))
+                .shouldFailOnError(true)
+                .build();
+        assertThat(new Runner(options).run()).isNotEmpty();
+    }
+}
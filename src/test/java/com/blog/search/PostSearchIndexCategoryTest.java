@@ -0,0 +1,84 @@
+package com.blog.search;
+
+import com.blog.dto.CategoryDTO;
+import com.blog.dto.PostDTO;
+import com.blog.dto.PostSummaryDTO;
+import com.blog.service.CategoryService;
+import com.blog.service.PostService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The in-memory index matches posts by the names of their categories, and follows a category
+ * that is renamed or deleted without the posts themselves being saved again, as PostgreSQL
+ * full-text search does.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@WithMockUser(username = "admin@example.com", roles = "ADMIN")
+class PostSearchIndexCategoryTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Test
+    void followsCategoryRenamesAndDeletes() throws InterruptedException {
+        String name = uniqueWord();
+        CategoryDTO category = new CategoryDTO();
+        category.setName(name);
+        category.setMenuOrder(0);
+        category = categoryService.createCategory(category);
+
+        PostDTO post = new PostDTO();
+        post.setTitle("Categorized");
+        post.setContent("<p>Plain body</p>");
+        post.setCategories(Set.of(category));
+        Long id = postService.createPost(post).getId();
+        awaitSearch(name, List.of(id));
+
+        String renamed = uniqueWord();
+        category.setName(renamed);
+        categoryService.updateCategory(category.getId(), category);
+        awaitSearch(renamed, List.of(id));
+        assertThat(searchIds(name)).isEmpty();
+
+        categoryService.deleteCategory(category.getId());
+        awaitSearch(renamed, List.of());
+    }
+
+    // The index follows commits from a background thread
+    private void awaitSearch(String query, List<Long> expected) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            if (searchIds(query).equals(expected)) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        assertThat(searchIds(query)).isEqualTo(expected);
+    }
+
+    private List<Long> searchIds(String query) {
+        return postService.searchPosts(query, PageRequest.of(0, 10)).getContent().stream()
+                .map(PostSummaryDTO::getId)
+                .collect(Collectors.toList());
+    }
+
+    // Letters only, so the tokenizer keeps it as one term
+    private static String uniqueWord() {
+        return "w" + UUID.randomUUID().toString().replaceAll("[^a-f]", "");
+    }
+}
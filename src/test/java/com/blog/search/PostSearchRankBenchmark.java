@@ -0,0 +1,84 @@
+package com.blog.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per query of ranking the first page of search results, sampled so the report shows
+ * p50/p99, at 10k, 100k and 1M synthetic posts. Words are drawn from a Zipf-like
+ * vocabulary, so "w0" matches most posts (a broad query) and "w900" only a few.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class PostSearchRankBenchmark {
+
+    private static final int VOCABULARY = 1000;
+
+    private static final int CONTENT_WORDS = 24;
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"10000", "100000", "1000000"})
+    public int documents;
+
+    @Param({"w0", "w3 w7", "w900", "\"w1 w2\""})
+    public String query;
+
+    private PostSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        index = new PostSearchIndex();
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        for (long id = 1; id <= documents; id++) {
+            index.index(new PostDocument(id, words(random, 6), "<p>" + words(random, CONTENT_WORDS) + "</p>",
+                    List.of(word(random), word(random)), List.of("category" + random.nextInt(20)),
+                    random.nextInt(10) > 0, start.plusMinutes(id)));
+        }
+    }
+
+    @Benchmark
+    public PostSearchIndex.RankedHits rankFirstPage() {
+        return index.rank(query, false, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public PostSearchIndex.RankedHits rankTenthPage() {
+        return index.rank(query, false, PAGE_SIZE * 10);
+    }
+
+    private static String words(Random random, int count) {
+        List<String> words = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            words.add(word(random));
+        }
+        return String.join(" ", words);
+    }
+
+    // Squaring a uniform draw skews towards low word numbers
+    private static String word(Random random) {
+        double uniform = random.nextDouble();
+        return "w" + (int) (uniform * uniform * VOCABULARY);
+    }
+}
@@ -0,0 +1,149 @@
+package com.blog.search;
+
+import com.blog.dto.CategoryDTO;
+import com.blog.dto.PostDTO;
+import com.blog.dto.PostSummaryDTO;
+import com.blog.service.CategoryService;
+import com.blog.service.PostService;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the PostgreSQL search mode against a real PostgreSQL that the test starts from
+ * embedded binaries, with no Docker or installed server: the generated search vector, its GIN
+ * index and websearch_to_tsquery matching and ranking.
+ */
+@SpringBootTest(properties = {
+        "blog.search.mode=auto",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@AutoConfigureEmbeddedDatabase(type = AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES,
+        provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@WithMockUser(username = "admin@example.com", roles = "ADMIN")
+class PostgresFullTextSearchTest {
+
+    @Autowired
+    private PostSearchMode searchMode;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void detectsPostgres() {
+        assertThat(searchMode).isEqualTo(PostSearchMode.POSTGRES);
+    }
+
+    @Test
+    void searchVectorIsAGeneratedColumnWithAGinIndex() {
+        String generated = jdbcTemplate.queryForObject("SELECT is_generated FROM information_schema.columns " +
+                "WHERE table_name = 'posts' AND column_name = 'search_vector'", String.class);
+        assertThat(generated).isEqualTo("ALWAYS");
+
+        String indexDefinition = jdbcTemplate.queryForObject(
+                "SELECT indexdef FROM pg_indexes WHERE indexname = 'idx_posts_search_vector'", String.class);
+        assertThat(indexDefinition).containsIgnoringCase("USING gin");
+
+        // With sequential scans ruled out, a match can only be planned through the GIN index
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                StringBuilder lines = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery("EXPLAIN SELECT id FROM posts " +
+                        "WHERE search_vector @@ websearch_to_tsquery('simple', 'spring')")) {
+                    while (rs.next()) {
+                        lines.append(rs.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("RESET enable_seqscan");
+                return lines.toString();
+            }
+        });
+        assertThat(plan).contains("idx_posts_search_vector");
+    }
+
+    @Test
+    void titleHitsRankAboveBodyHits() {
+        String word = uniqueWord();
+        PostDTO inBody = postService.createPost(post("Body mention", "<p>Only the body says " + word + "</p>"));
+        PostDTO inTitle = postService.createPost(post("All about " + word, "<p>Nothing else here</p>"));
+
+        assertThat(searchIds(word)).containsExactly(inTitle.getId(), inBody.getId());
+    }
+
+    @Test
+    void supportsWebSearchSyntax() {
+        String word = uniqueWord();
+        PostDTO guide = postService.createPost(post(word + " guide", "<p>A guide</p>"));
+        PostDTO phrase = postService.createPost(post("Notes", "<p>It mentions " + word + " in passing</p>"));
+
+        assertThat(searchIds(word + " -guide")).containsExactly(phrase.getId());
+        assertThat(searchIds("\"mentions " + word + "\"")).containsExactly(phrase.getId());
+        assertThat(searchIds(word + " or nonexistentword")).containsExactlyInAnyOrder(guide.getId(), phrase.getId());
+    }
+
+    @Test
+    void matchesCategoryNamesAndFollowsRenamesAndDeletes() {
+        String name = uniqueWord();
+        CategoryDTO category = new CategoryDTO();
+        category.setName(name);
+        category.setMenuOrder(0);
+        category = categoryService.createCategory(category);
+
+        PostDTO post = post("Categorized", "<p>Plain body</p>");
+        post.setCategories(Set.of(category));
+        PostDTO created = postService.createPost(post);
+        assertThat(searchIds(name)).containsExactly(created.getId());
+
+        String renamed = uniqueWord();
+        category.setName(renamed);
+        categoryService.updateCategory(category.getId(), category);
+
+        assertThat(searchIds(renamed)).containsExactly(created.getId());
+        assertThat(searchIds(name)).isEmpty();
+
+        categoryService.deleteCategory(category.getId());
+        assertThat(searchIds(renamed)).isEmpty();
+    }
+
+    private List<Long> searchIds(String query) {
+        return postService.searchPosts(query, PageRequest.of(0, 10)).getContent().stream()
+                .map(PostSummaryDTO::getId)
+                .collect(Collectors.toList());
+    }
+
+    // Letters only, so the simple configuration keeps it as one lexeme
+    private static String uniqueWord() {
+        return "w" + UUID.randomUUID().toString().replaceAll("[^a-f]", "");
+    }
+
+    private static PostDTO post(String title, String content) {
+        PostDTO post = new PostDTO();
+        post.setTitle(title);
+        post.setContent(content);
+        return post;
+    }
+}
@@ -0,0 +1,103 @@
+package com.blog.security;
+
+import com.blog.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per request of {@link JwtAuthenticationFilter} for a bearer token: a repeat request
+ * answered from {@link VerifiedTokenCache}, and a first request that parses and verifies
+ * the HS512 signature. The uncached case empties the cache before each call, which costs
+ * far less than the verification it forces.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private VerifiedTokenCache verifiedTokens;
+
+    private JwtAuthenticationFilter filter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void createFilter() throws ServletException, IOException {
+        byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+        JwtKeyRing keyRing = new JwtKeyRing(Base64.getEncoder().encodeToString(secret), "primary", "");
+        verifiedTokens = new VerifiedTokenCache(10_000, new SimpleMeterRegistry());
+
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(tokenProvider, "keyRing", keyRing);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedTokens", verifiedTokens);
+        tokenProvider.init();
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "tokenProvider", tokenProvider);
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("reader@example.com");
+        user.setRole("USER");
+        request = new MockHttpServletRequest("GET", "/api/posts");
+        request.addHeader("Authorization", "Bearer " + tokenProvider.generateToken(user));
+        response = new MockHttpServletResponse();
+
+        // A rejected token would make both cases measure the failure path
+        if (filterOnce() == null) {
+            throw new IllegalStateException("Token was not accepted");
+        }
+    }
+
+    @Benchmark
+    public Authentication cachedToken() throws ServletException, IOException {
+        return filterOnce();
+    }
+
+    @Benchmark
+    public Authentication uncachedToken() throws ServletException, IOException {
+        verifiedTokens.invalidateAll();
+        return filterOnce();
+    }
+
+    private Authentication filterOnce() throws ServletException, IOException {
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
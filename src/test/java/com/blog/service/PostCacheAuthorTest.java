@@ -0,0 +1,73 @@
+package com.blog.service;
+
+import com.blog.cache.PostCache;
+import com.blog.cache.SerializedPost;
+import com.blog.model.Post;
+import com.blog.model.User;
+import com.blog.repository.PostRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A cached post embeds its author, so a change to the author's profile must reach both the
+ * cached body and its validators.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PostCacheAuthorTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Test
+    void authorProfileChangeRefreshesTheCachedPost() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        String googleId = "google-" + run;
+        String email = "author-" + run + "@example.com";
+        User author = userService.createOrUpdateGoogleUser(googleId, "Old Name " + run, email, null);
+
+        Post post = new Post();
+        post.setTitle("Authored " + run);
+        post.setSlug("authored-" + run);
+        post.setContent("<p>Written by someone who renames themselves</p>");
+        post.setAuthor(author);
+        Long id = postRepository.save(post).getId();
+
+        SerializedPost before = postService.getPublishedPost(id);
+        assertThat(json(before)).contains("Old Name " + run);
+        assertThat(uncachedETag(id)).isEqualTo(before.getVersion().getETag());
+
+        userService.createOrUpdateGoogleUser(googleId, "New Name " + run, email, null);
+
+        SerializedPost after = postService.getPublishedPost(id);
+        assertThat(json(after)).contains("New Name " + run).doesNotContain("Old Name " + run);
+        assertThat(after.getVersion().getETag()).isNotEqualTo(before.getVersion().getETag());
+        assertThat(uncachedETag(id)).isEqualTo(after.getVersion().getETag());
+    }
+
+    // The validators a request computes from the database when the post is not cached
+    private String uncachedETag(Long id) {
+        postCache.invalidate(id);
+        return postService.getPostVersion(id).getETag();
+    }
+
+    private static String json(SerializedPost post) {
+        return new String(post.getJson(), StandardCharsets.UTF_8);
+    }
+}
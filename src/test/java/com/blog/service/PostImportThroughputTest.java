@@ -0,0 +1,107 @@
+package com.blog.service;
+
+import com.blog.dto.ImportResult;
+import com.blog.model.Category;
+import com.blog.model.User;
+import com.blog.repository.CategoryRepository;
+import com.blog.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Imports 100k generated posts, each with tags and a category, and checks the whole run
+ * finishes within a minute. The input is generated while it is read, so only the import
+ * itself is measured. Run with {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class PostImportThroughputTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PostImportThroughputTest.class);
+
+    private static final int POSTS = 100_000;
+
+    private static final Duration BUDGET = Duration.ofMinutes(1);
+
+    @Autowired
+    private PostImportService postImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void importsOneHundredThousandPostsWithinAMinute() throws Exception {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        User importer = new User();
+        importer.setName("Importer " + run);
+        importer.setEmail("importer-" + run + "@example.com");
+        importer.setRole("ADMIN");
+        userRepository.save(importer);
+
+        Category category = new Category();
+        category.setName("Imported " + run);
+        category.setSlug("imported-" + run);
+        Long categoryId = categoryRepository.save(category).getId();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                importer.getEmail(), null, List.of()));
+        try {
+            long start = System.nanoTime();
+            ImportResult result = postImportService.importPosts(ndjson(run, categoryId));
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            log.info("Imported {} posts in {} ms ({} posts/s)", result.getImported(), elapsed.toMillis(),
+                    result.getImported() * 1000L / Math.max(1, elapsed.toMillis()));
+            assertThat(result.getFailed()).isZero();
+            assertThat(result.getImported()).isEqualTo(POSTS);
+            assertThat(elapsed).isLessThan(BUDGET);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // One line per post, produced on demand
+    private static InputStream ndjson(String run, Long categoryId) {
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+            private int next;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next < POSTS;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                int i = next++;
+                String line = "{\"title\":\"Imported post " + run + " " + i + "\"," +
+                        "\"content\":\"<p>Body of imported post " + i + ", long enough to have an excerpt " +
+                        "and a reading time of its own.</p>\"," +
+                        "\"published\":true,\"tags\":[\"import\",\"tag-" + (i % 50) + "\"]," +
+                        "\"categories\":[{\"id\":" + categoryId + "}]}\n";
+                return new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+}
@@ -0,0 +1,169 @@
+package com.blog.service;
+
+import com.blog.dto.PostSummaryDTO;
+import com.blog.model.Category;
+import com.blog.model.Post;
+import com.blog.model.User;
+import com.blog.repository.CategoryRepository;
+import com.blog.repository.PostRepository;
+import com.blog.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listing pages are assembled from an ID page plus batched hydration, so the number of
+ * statements a listing runs must not depend on how many posts the page holds.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PostListingQueryCountTest {
+
+    private static final int POSTS = 30;
+
+    // ID page, count, summaries with authors, categories, tags
+    private static final long LISTING_STATEMENTS = 5;
+
+    // Ranked IDs come from the in-memory index; summaries, categories, tags, snippet content
+    private static final long SEARCH_STATEMENTS = 4;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Category category;
+
+    private String searchWord;
+
+    @BeforeEach
+    void createPosts() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        searchWord = "listing" + run;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User author = new User();
+            author.setName("Author " + run);
+            author.setEmail("author-" + run + "@example.com");
+            author.setRole("USER");
+            userRepository.save(author);
+
+            category = categoryRepository.save(newCategory("Listing " + run));
+            Category other = categoryRepository.save(newCategory("Other " + run));
+
+            for (int i = 0; i < POSTS; i++) {
+                Post post = new Post();
+                post.setTitle("Post " + i + " " + searchWord);
+                post.setSlug("listing-" + run + "-" + i);
+                post.setContent("<p>Body of post " + i + " mentioning " + searchWord + "</p>");
+                post.setTags(List.of("tag-a", "tag-b", "tag-c"));
+                post.setAuthor(author);
+                post.addCategory(category);
+                post.addCategory(other);
+                postRepository.save(post);
+            }
+        });
+    }
+
+    @Test
+    void feedRunsTheSameStatementsForAnyPageSize() {
+        long small = countStatements(() -> postService.getAllPosts(page(2)));
+        long large = countStatements(() -> postService.getAllPosts(page(POSTS)));
+
+        assertThat(small).isLessThanOrEqualTo(LISTING_STATEMENTS);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void categoryFeedRunsTheSameStatementsForAnyPageSize() {
+        Long categoryId = category.getId();
+        // One more for the category itself
+        long small = countStatements(() -> postService.getPostsByCategory(categoryId, page(2)));
+        long large = countStatements(() -> postService.getPostsByCategory(categoryId, page(POSTS)));
+
+        assertThat(small).isLessThanOrEqualTo(LISTING_STATEMENTS + 1);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void searchRunsTheSameStatementsForAnyPageSize() throws InterruptedException {
+        awaitIndexed();
+
+        long small = countStatements(() -> postService.searchPosts(searchWord, PageRequest.of(0, 2)));
+        long large = countStatements(() -> postService.searchPosts(searchWord, PageRequest.of(0, POSTS)));
+
+        assertThat(small).isLessThanOrEqualTo(SEARCH_STATEMENTS);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void cursorFeedRunsTheSameStatementsForAnyPageSize() {
+        long small = countStatements(() -> postService.getAllPosts("", 2));
+        long large = countStatements(() -> postService.getAllPosts("", POSTS));
+
+        // No count query in cursor mode
+        assertThat(small).isLessThanOrEqualTo(LISTING_STATEMENTS - 1);
+        assertThat(large).isEqualTo(small);
+    }
+
+    private long countStatements(Supplier<?> listing) {
+        statistics.clear();
+        listing.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // The index follows commits from a background thread
+    private void awaitIndexed() throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            Page<PostSummaryDTO> hits = postService.searchPosts(searchWord, PageRequest.of(0, POSTS));
+            if (hits.getTotalElements() == POSTS) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Posts were not indexed");
+    }
+
+    private static Pageable page(int size) {
+        return PageRequest.of(0, size, Sort.by("createdAt").descending());
+    }
+
+    private static Category newCategory(String name) {
+        Category category = new Category();
+        category.setName(name);
+        category.setSlug(name.toLowerCase().replace(' ', '-'));
+        return category;
+    }
+}
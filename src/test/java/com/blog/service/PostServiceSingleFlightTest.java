@@ -0,0 +1,92 @@
+package com.blog.service;
+
+import com.blog.cache.PostCache;
+import com.blog.cache.SerializedPost;
+import com.blog.model.Post;
+import com.blog.repository.PostRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A cold published post requested by many callers at once is loaded from the database
+ * exactly once, whether a caller joins the flight or arrives just after it finished.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PostServiceSingleFlightTest {
+
+    private static final int CALLERS = 500;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void concurrentMissesLoadThePostOnce() throws Exception {
+        Long id = createPost();
+        postCache.invalidate(id);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long loadsBefore = statistics.getEntityStatistics(Post.class.getName()).getLoadCount();
+
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch ready = new CountDownLatch(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<SerializedPost>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(callers.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    return postService.getPublishedPost(id);
+                }));
+            }
+            assertThat(ready.await(30, TimeUnit.SECONDS)).isTrue();
+            start.countDown();
+
+            SerializedPost first = results.get(0).get(30, TimeUnit.SECONDS);
+            assertThat(first).isNotNull();
+            for (Future<SerializedPost> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isSameAs(first);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        long loads = statistics.getEntityStatistics(Post.class.getName()).getLoadCount() - loadsBefore;
+        assertThat(loads).isEqualTo(1);
+    }
+
+    private Long createPost() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        Post post = new Post();
+        post.setTitle("Hot post " + run);
+        post.setSlug("hot-post-" + run);
+        post.setContent("<p>Everybody wants to read this</p>");
+        return postRepository.save(post).getId();
+    }
+}
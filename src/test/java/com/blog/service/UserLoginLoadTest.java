@@ -0,0 +1,135 @@
+package com.blog.service;
+
+import com.blog.model.User;
+import com.blog.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Returning Google sign-ins against a users table of 100k rows. An unchanged user must cost
+ * one indexed lookup and no write. The timing is logged next to that of the previous login
+ * path, which also counted the whole table and saved the user every time, but not asserted
+ * on. Run with {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class UserLoginLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserLoginLoadTest.class);
+
+    private static final int USERS = 100_000;
+
+    private static final int LOGINS = 2_000;
+
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String run;
+
+    @BeforeEach
+    void createUsers() {
+        run = UUID.randomUUID().toString().substring(0, 8);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < USERS; i++) {
+            batch.add(new Object[]{"User " + i, email(i), "https://example.com/" + i + ".png", googleId(i), "USER", now, now});
+            if (batch.size() == BATCH_SIZE) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+
+    @Test
+    void unchangedReturningUsersAreNotWritten() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Warm up both paths so neither pays for class loading or statement preparation
+        login(0);
+        previousLogin(0);
+
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < LOGINS; i++) {
+            login(i * (USERS / LOGINS));
+        }
+        long loginNanos = System.nanoTime() - start;
+        long statements = statistics.getPrepareStatementCount();
+        long updates = statistics.getEntityUpdateCount();
+
+        start = System.nanoTime();
+        for (int i = 0; i < LOGINS; i++) {
+            previousLogin(i * (USERS / LOGINS));
+        }
+        long previousNanos = System.nanoTime() - start;
+
+        log.info("{} logins over {} users: {} µs each, previously {} µs each", LOGINS, USERS,
+                loginNanos / LOGINS / 1000, previousNanos / LOGINS / 1000);
+        assertThat(statements).isEqualTo(LOGINS);
+        assertThat(updates).isZero();
+    }
+
+    private User login(int i) {
+        return userService.createOrUpdateGoogleUser(googleId(i), "User " + i, email(i),
+                "https://example.com/" + i + ".png");
+    }
+
+    // What a login cost before: a full count, the lookup and an unconditional save
+    private void previousLogin(int i) {
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.count();
+            User user = userRepository.findByGoogleId(googleId(i)).orElseThrow();
+            userRepository.save(user);
+        });
+    }
+
+    private void insert(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email, picture_url, google_id, role, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private String email(int i) {
+        return "user-" + run + "-" + i + "@example.com";
+    }
+
+    private String googleId(int i) {
+        return "google-" + run + "-" + i;
+    }
+}
@@ -0,0 +1,80 @@
+package com.blog.storage;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uploads per second through {@link BlobUploader} into a {@link FileSystemBlobStorage} in a
+ * temporary directory: hashing, the size limit, staging and the rename into place, with no
+ * network. The blob index is a stub that never finds the content, so every upload is
+ * stored; multiply by {@code size} for bytes per second. The concurrent case runs four
+ * uploads at once, as several editors uploading would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlobUploadBenchmark {
+
+    @Param({"65536", "1048576", "8388608"})
+    public int size;
+
+    private Path root;
+
+    private BlobUploader uploader;
+
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void createUploader() throws IOException {
+        root = Files.createTempDirectory("blog-upload-benchmark");
+        uploader = new BlobUploader();
+        ReflectionTestUtils.setField(uploader, "blobStorage", new FileSystemBlobStorage(root, "/api/files"));
+        ReflectionTestUtils.setField(uploader, "blobIndex", Mockito.mock(BlobIndex.class));
+        ReflectionTestUtils.setField(uploader, "maxSize", DataSize.ofBytes(size));
+
+        content = new byte[size];
+        new Random(42).nextBytes(content);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteRoot() throws IOException {
+        FileSystemUtils.deleteRecursively(root);
+    }
+
+    @Benchmark
+    public StoredUpload upload() throws IOException {
+        return uploader.upload("image.png", "image/png", new ByteArrayInputStream(content));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public StoredUpload concurrentUploads() throws IOException {
+        return uploader.upload("image.png", "image/png", new ByteArrayInputStream(content));
+    }
+}
@@ -0,0 +1,285 @@
+package com.blog.storage;
+
+import com.blog.dto.ImageVariantDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs the pipeline against storage kept in memory and small generated images, waiting for
+ * its worker threads before looking at what they stored.
+ */
+class ImageVariantPipelineTest {
+
+    private static final String VARIANTS = "thumb:150,large:1280,small:300";
+
+    private final InMemoryBlobStorage storage = new InMemoryBlobStorage();
+
+    private final BlobIndex blobIndex = Mockito.mock(BlobIndex.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ImageVariantPipeline pipeline;
+
+    @AfterEach
+    void stop() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void storesEveryVariantLargestFirstWithoutScalingUp() throws Exception {
+        pipeline = pipeline(VARIANTS, 40_000_000, 1, 10);
+        storage.store("uploads/photo.jpg", encode(image(1000, 500, BufferedImage.TYPE_INT_RGB), "jpeg"));
+
+        List<ImageVariantDTO> manifest = pipeline.submit("uploads/photo.jpg", "image/jpeg");
+        awaitProcessed(1);
+
+        assertThat(manifest).extracting(ImageVariantDTO::getName).containsExactly("large", "small", "thumb");
+        assertThat(manifest).extracting(ImageVariantDTO::getWidth).containsExactly(1280, 300, 150);
+        assertThat(manifest).extracting(ImageVariantDTO::getUrl).containsExactly(
+                "/blobs/uploads/photo-large.jpg", "/blobs/uploads/photo-small.jpg", "/blobs/uploads/photo-thumb.jpg");
+
+        // Narrower than the large variant, so only re-encoded at its own size
+        assertSize(stored("uploads/photo-large.jpg"), 1000, 500);
+        assertSize(stored("uploads/photo-small.jpg"), 300, 150);
+        assertSize(stored("uploads/photo-thumb.jpg"), 150, 75);
+        assertThat(storage.contentType("uploads/photo-thumb.jpg")).isEqualTo("image/jpeg");
+        verify(blobIndex).markVariantsReady("uploads/photo.jpg");
+    }
+
+    @Test
+    void keepsTheAspectRatioAndAtLeastOnePixelOfHeight() throws Exception {
+        pipeline = pipeline("small:100,tiny:10", 40_000_000, 1, 10);
+        storage.store("uploads/wide.bmp", encode(image(300, 200, BufferedImage.TYPE_INT_RGB), "bmp"));
+        storage.store("uploads/strip.bmp", encode(image(4000, 10, BufferedImage.TYPE_INT_RGB), "bmp"));
+
+        pipeline.submit("uploads/wide.bmp", "image/bmp");
+        pipeline.submit("uploads/strip.bmp", "image/bmp");
+        awaitProcessed(2);
+
+        // 200 * 100 / 300 rounds to 67
+        assertSize(stored("uploads/wide-small.jpg"), 100, 67);
+        assertSize(stored("uploads/wide-tiny.jpg"), 10, 7);
+        // Halving stops at the target on each axis, so many steps still end at exactly 100 x 1
+        assertSize(stored("uploads/strip-small.jpg"), 100, 1);
+        assertSize(stored("uploads/strip-tiny.jpg"), 10, 1);
+    }
+
+    @Test
+    void transparentFormatsStayPng() throws Exception {
+        pipeline = pipeline("thumb:150", 40_000_000, 1, 10);
+        storage.store("uploads/logo.png", encode(image(400, 400, BufferedImage.TYPE_INT_ARGB), "png"));
+        storage.store("uploads/anim.gif", encode(image(400, 200, BufferedImage.TYPE_INT_RGB), "gif"));
+
+        assertThat(pipeline.submit("uploads/logo.png", "IMAGE/PNG"))
+                .extracting(ImageVariantDTO::getUrl).containsExactly("/blobs/uploads/logo-thumb.png");
+        assertThat(pipeline.submit("uploads/anim.gif", "image/gif"))
+                .extracting(ImageVariantDTO::getUrl).containsExactly("/blobs/uploads/anim-thumb.png");
+        awaitProcessed(2);
+
+        BufferedImage logo = stored("uploads/logo-thumb.png");
+        assertSize(logo, 150, 150);
+        assertThat(logo.getColorModel().hasAlpha()).isTrue();
+        assertThat(storage.contentType("uploads/logo-thumb.png")).isEqualTo("image/png");
+        assertSize(stored("uploads/anim-thumb.png"), 150, 75);
+    }
+
+    @Test
+    void unsupportedTypesGetNoManifest() {
+        pipeline = pipeline(VARIANTS, 40_000_000, 1, 10);
+
+        assertThat(pipeline.submit("uploads/photo.webp", "image/webp")).isEmpty();
+        assertThat(pipeline.submit("uploads/notes.txt", null)).isEmpty();
+        assertThat(pipeline("", 40_000_000, 1, 10).manifest("uploads/photo.jpg", "image/jpeg")).isEmpty();
+    }
+
+    @Test
+    void variantKeysReplaceTheExtensionOfTheFileNameOnly() {
+        assertThat(ImageVariantPipeline.variantKey("uploads/abc.png", "thumb", true)).isEqualTo("uploads/abc-thumb.png");
+        assertThat(ImageVariantPipeline.variantKey("uploads/abc.jpeg", "thumb", false)).isEqualTo("uploads/abc-thumb.jpg");
+        assertThat(ImageVariantPipeline.variantKey("uploads/abc", "thumb", false)).isEqualTo("uploads/abc-thumb.jpg");
+        assertThat(ImageVariantPipeline.variantKey("uploads.v1/abc", "thumb", false)).isEqualTo("uploads.v1/abc-thumb.jpg");
+    }
+
+    @Test
+    void rejectsMalformedVariantSpecs() {
+        assertThatThrownBy(() -> pipeline("thumb", 40_000_000, 1, 10))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("name:maxWidth");
+        assertThatThrownBy(() -> pipeline(":150", 40_000_000, 1, 10))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> pipeline("thumb:0", 40_000_000, 1, 10))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("positive");
+    }
+
+    @Test
+    void imagesOverThePixelLimitAreNotDecoded() throws Exception {
+        pipeline = pipeline(VARIANTS, 100 * 100 - 1, 1, 10);
+        storage.store("uploads/big.png", encode(image(100, 100, BufferedImage.TYPE_INT_RGB), "png"));
+        storage.store("uploads/broken.jpg", "not an image".getBytes(StandardCharsets.UTF_8));
+
+        pipeline.submit("uploads/big.png", "image/png");
+        pipeline.submit("uploads/broken.jpg", "image/jpeg");
+        awaitProcessed(2);
+
+        assertThat(storage.keys()).containsExactlyInAnyOrder("uploads/big.png", "uploads/broken.jpg");
+        assertThat(meterRegistry.get("blog.images.variants.failed").counter().count()).isEqualTo(2);
+        verify(blobIndex, never()).markVariantsReady(anyString());
+    }
+
+    @Test
+    void fullQueueGivesAnEmptyManifest() throws Exception {
+        pipeline = pipeline("thumb:150", 40_000_000, 1, 1);
+        byte[] jpeg = encode(image(400, 300, BufferedImage.TYPE_INT_RGB), "jpeg");
+        storage.store("uploads/a.jpg", jpeg);
+        storage.store("uploads/b.jpg", jpeg);
+        storage.store("uploads/c.jpg", jpeg);
+
+        // The only worker holds the first image and the queue the second
+        CountDownLatch release = storage.holdReads();
+        assertThat(pipeline.submit("uploads/a.jpg", "image/jpeg")).hasSize(1);
+        assertThat(pipeline.submit("uploads/b.jpg", "image/jpeg")).hasSize(1);
+        assertThat(pipeline.submit("uploads/c.jpg", "image/jpeg")).isEmpty();
+        release.countDown();
+        awaitProcessed(2);
+
+        assertThat(storage.keys()).contains("uploads/a-thumb.jpg", "uploads/b-thumb.jpg")
+                .doesNotContain("uploads/c-thumb.jpg");
+        verify(blobIndex, never()).markVariantsReady("uploads/c.jpg");
+    }
+
+    private ImageVariantPipeline pipeline(String variants, long maxPixels, int workers, int queueCapacity) {
+        return new ImageVariantPipeline(storage, blobIndex, meterRegistry, variants, 0.82f, maxPixels,
+                workers, queueCapacity);
+    }
+
+    // The timer is stopped once an image is done with, whether or not its variants were stored
+    private void awaitProcessed(long images) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            if (processed() >= images) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        assertThat(processed()).isEqualTo(images);
+    }
+
+    private long processed() {
+        return meterRegistry.get("blog.images.variants.processing").timer().count();
+    }
+
+    private BufferedImage stored(String key) throws IOException {
+        byte[] content = storage.content(key);
+        assertThat(content).as("stored %s", key).isNotNull();
+        return ImageIO.read(new ByteArrayInputStream(content));
+    }
+
+    private static void assertSize(BufferedImage image, int width, int height) {
+        assertThat(image.getWidth()).isEqualTo(width);
+        assertThat(image.getHeight()).isEqualTo(height);
+    }
+
+    private static BufferedImage image(int width, int height, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, x % 2 == 0 ? 0x80FF0000 : 0xFF0000FF);
+            }
+        }
+        return image;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(ImageIO.write(image, format, out)).as("%s writer", format).isTrue();
+        return out.toByteArray();
+    }
+
+    // Objects in a map; reads can be held back to keep a worker busy
+    private static final class InMemoryBlobStorage implements BlobStorage {
+
+        private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+
+        private volatile CountDownLatch reads = new CountDownLatch(0);
+
+        void store(String key, byte[] content) {
+            objects.put(key, new StoredObject("application/octet-stream", content));
+        }
+
+        CountDownLatch holdReads() {
+            reads = new CountDownLatch(1);
+            return reads;
+        }
+
+        Set<String> keys() {
+            return objects.keySet();
+        }
+
+        byte[] content(String key) {
+            StoredObject object = objects.get(key);
+            return object == null ? null : object.content();
+        }
+
+        String contentType(String key) {
+            return objects.get(key).contentType();
+        }
+
+        @Override
+        public StagedBlob stage(String contentType, InputStream content) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void put(String key, String contentType, byte[] content) {
+            objects.put(key, new StoredObject(contentType, content));
+        }
+
+        @Override
+        public InputStream open(String key) throws IOException {
+            try {
+                reads.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            byte[] content = content(key);
+            if (content == null) {
+                throw new IOException("No object " + key);
+            }
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public String getUrl(String key) {
+            return "/blobs/" + key;
+        }
+
+        private record StoredObject(String contentType, byte[] content) {
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.blog.storage;
+
+import com.adobe.testing.s3mock.junit5.S3MockExtension;
+import com.blog.model.User;
+import com.blog.repository.UserRepository;
+import com.blog.security.JwtTokenProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Streams uploads into S3 served in-process by S3Mock: a small upload stored with one PUT, a
+ * multipart request large enough to go up in parallel parts, and an upload stopped at the
+ * size limit with its multipart upload aborted.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "blog.storage.backend=s3",
+        "aws.s3.bucket=" + S3UploadTest.BUCKET,
+        "blog.uploads.max-size=20MB",
+        "blog.uploads.part-size=5MB"
+})
+@ActiveProfiles("test")
+class S3UploadTest {
+
+    static final String BUCKET = "blog-test-uploads";
+
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    private static final int MAX_SIZE = 20 * 1024 * 1024;
+
+    // S3Mock is a Spring Boot application of its own and would otherwise pick up this
+    // application's properties and auto-configuration: a datasource and a secured server
+    @RegisterExtension
+    static final S3MockExtension S3_MOCK = S3MockExtension.builder()
+            .silent()
+            .withSecureConnection(false)
+            .withInitialBuckets(BUCKET)
+            .withProperty("spring.autoconfigure.exclude", String.join(",",
+                    "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+                    "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+                    "org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration",
+                    "org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration",
+                    "org.springframework.boot.autoconfigure.security.oauth2.client.servlet.OAuth2ClientAutoConfiguration",
+                    "org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration"))
+            .build();
+
+    @DynamicPropertySource
+    static void s3(DynamicPropertyRegistry registry) {
+        registry.add("aws.s3.endpoint", () -> "http://localhost:" + S3_MOCK.getHttpPort());
+        // S3Mock accepts any credentials, but the client still signs its requests
+        registry.add("aws.accessKey", () -> "test");
+        registry.add("aws.secretKey", () -> "test");
+        registry.add("aws.region", () -> "us-east-1");
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BlobUploader uploader;
+
+    @Autowired
+    private S3Client s3Client;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Test
+    void smallUploadIsStoredWithOnePut() throws Exception {
+        byte[] content = randomBytes(16 * 1024);
+
+        StoredUpload upload = uploader.upload("small.bin", "application/octet-stream",
+                new ByteArrayInputStream(content));
+
+        assertThat(upload.getKey()).isEqualTo("uploads/" + sha256(content) + ".bin");
+        assertThat(download(upload.getKey())).isEqualTo(content);
+        assertNothingLeftStaged();
+    }
+
+    @Test
+    void multipartRequestIsStreamedInParallelParts() throws Exception {
+        // Three full parts and a short last one
+        byte[] content = randomBytes(3 * PART_SIZE + 1024);
+
+        HttpHeaders partHeaders = new HttpHeaders();
+        partHeaders.setContentType(MediaType.parseMediaType("image/webp"));
+        MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+        form.add("file", new HttpEntity<>(new ByteArrayResource(content) {
+            @Override
+            public String getFilename() {
+                return "large.webp";
+            }
+        }, partHeaders));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        headers.setBearerAuth(adminToken());
+        ResponseEntity<Map> response = restTemplate.postForEntity("/api/s3/upload", new HttpEntity<>(form, headers),
+                Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat((String) response.getBody().get("url")).endsWith(sha256(content) + ".webp");
+        assertThat(download("uploads/" + sha256(content) + ".webp")).isEqualTo(content);
+        assertNothingLeftStaged();
+    }
+
+    @Test
+    void uploadPastTheLimitIsStoppedAndAborted() {
+        CountingStream content = new CountingStream(MAX_SIZE + 5L * PART_SIZE);
+
+        assertThatThrownBy(() -> uploader.upload("huge.bin", "application/octet-stream", content))
+                .isInstanceOf(UploadTooLargeException.class);
+
+        // Reading stops at the part that crosses the limit
+        assertThat(content.read).isLessThanOrEqualTo(MAX_SIZE + PART_SIZE);
+        assertNothingLeftStaged();
+    }
+
+    private void assertNothingLeftStaged() {
+        assertThat(s3Client.listMultipartUploads(ListMultipartUploadsRequest.builder().bucket(BUCKET).build())
+                .uploads()).isEmpty();
+        assertThat(s3Client.listObjectsV2(ListObjectsV2Request.builder().bucket(BUCKET).prefix("staging/").build())
+                .contents()).isEmpty();
+    }
+
+    private byte[] download(String key) {
+        ResponseBytes<GetObjectResponse> object = s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                .bucket(BUCKET)
+                .key(key)
+                .build());
+        return object.asByteArray();
+    }
+
+    private String adminToken() {
+        User admin = new User();
+        admin.setName("Uploader");
+        admin.setEmail("uploader-" + UUID.randomUUID() + "@example.com");
+        admin.setRole("ADMIN");
+        return tokenProvider.generateToken(userRepository.save(admin));
+    }
+
+    // Random so that every run stores new content instead of hitting the deduplication path
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random().nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    // Zeros up to a length, counting how many were actually read
+    private static final class CountingStream extends InputStream {
+
+        private final long length;
+
+        long read;
+
+        CountingStream(long length) {
+            this.length = length;
+        }
+
+        @Override
+        public int read() {
+            if (read >= length) {
+                return -1;
+            }
+            read++;
+            return 0;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (read >= length) {
+                return -1;
+            }
+            int n = (int) Math.min(len, length - read);
+            read += n;
+            return n;
+        }
+    }
+}